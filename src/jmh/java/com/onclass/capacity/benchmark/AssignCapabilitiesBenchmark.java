@@ -0,0 +1,92 @@
+package com.onclass.capacity.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns capabilities to a bootcamp inside a transaction, comparing one INSERT ... RETURNING per row
+ * (the former repository save per capacity) with the batched UNNEST insert used by the adapter.
+ * Needs a reachable Postgres, see {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssignCapabilitiesBenchmark {
+
+    private static final int ASSIGNATIONS_BATCH_SIZE = 500;
+
+    @Param({"20", "200", "1000"})
+    private int capabilities;
+
+    private BenchmarkDatabase database;
+    private List<Long> capacityIds;
+    private final AtomicLong bootcampSequence = new AtomicLong(System.currentTimeMillis());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.connect();
+        String prefix = "bench-assign-" + UUID.randomUUID();
+        capacityIds = Flux.range(0, capabilities)
+            .concatMap(index -> database.client()
+                .sql("INSERT INTO capabilities (name, description) VALUES (:name, :description) RETURNING id")
+                .bind("name", prefix + "-" + index)
+                .bind("description", "benchmark")
+                .map(row -> row.get("id", Long.class))
+                .one())
+            .collectList()
+            .block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.client()
+            .sql("DELETE FROM capabilities WHERE id IN (:capacityIds)")
+            .bind("capacityIds", capacityIds)
+            .then()
+            .block();
+    }
+
+    @Benchmark
+    public Long perRowInsert() {
+        long bootcampId = bootcampSequence.incrementAndGet();
+        return database.transactionalOperator().transactional(Flux.fromIterable(capacityIds)
+            .flatMap(capacityId -> database.client()
+                .sql("INSERT INTO capacity_bootcamp (id_capacity, id_bootcamp) VALUES (:capacityId, :bootcampId)")
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("capacityId", capacityId)
+                .bind("bootcampId", bootcampId)
+                .fetch()
+                .rowsUpdated())
+            .reduce(0L, Long::sum))
+            .block();
+    }
+
+    @Benchmark
+    public Long batchedInsert() {
+        long bootcampId = bootcampSequence.incrementAndGet();
+        return database.transactionalOperator().transactional(Flux.fromIterable(capacityIds)
+            .buffer(ASSIGNATIONS_BATCH_SIZE)
+            .concatMap(capacityIdsBatch -> database.client()
+                .sql("INSERT INTO capacity_bootcamp (id_capacity, id_bootcamp) SELECT UNNEST(ARRAY[:capacityIds]::BIGINT[]), :bootcampId")
+                .bind("capacityIds", capacityIdsBatch)
+                .bind("bootcampId", bootcampId)
+                .fetch()
+                .rowsUpdated())
+            .reduce(0L, Long::sum))
+            .block();
+    }
+}
@@ -0,0 +1,63 @@
+package com.onclass.capacity.benchmark;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Connection to the Postgres instance used by the persistence benchmarks. URL and username default
+ * to application.properties and can be overridden with -Dbenchmark.r2dbc.url/username. The password
+ * has no default: it comes from -Dbenchmark.r2dbc.password or the BENCHMARK_R2DBC_PASSWORD variable.
+ * The schema is applied from schema.sql, so an empty database is enough.
+ */
+final class BenchmarkDatabase {
+
+    private static final String DEFAULT_URL = "r2dbc:pool:postgresql://localhost:5432/onclass.capacity";
+    private static final String DEFAULT_USERNAME = "app_user";
+    private static final String PASSWORD_PROPERTY = "benchmark.r2dbc.password";
+    private static final String PASSWORD_VARIABLE = "BENCHMARK_R2DBC_PASSWORD";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    private BenchmarkDatabase(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    static BenchmarkDatabase connect() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(System.getProperty("benchmark.r2dbc.url", DEFAULT_URL))
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, System.getProperty("benchmark.r2dbc.username", DEFAULT_USERNAME))
+            .option(ConnectionFactoryOptions.PASSWORD, password())
+            .build();
+        BenchmarkDatabase database = new BenchmarkDatabase(ConnectionFactories.get(options));
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+            .populate(database.connectionFactory)
+            .block();
+        return database;
+    }
+
+    private static String password() {
+        String password = System.getProperty(PASSWORD_PROPERTY, System.getenv(PASSWORD_VARIABLE));
+        if (password == null || password.isBlank()) {
+            throw new IllegalStateException("Set -D" + PASSWORD_PROPERTY + " or " + PASSWORD_VARIABLE + " to the benchmark database password");
+        }
+        return password;
+    }
+
+    DatabaseClient client() {
+        return databaseClient;
+    }
+
+    TransactionalOperator transactionalOperator() {
+        return transactionalOperator;
+    }
+}
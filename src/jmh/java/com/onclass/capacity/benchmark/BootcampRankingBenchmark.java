@@ -0,0 +1,186 @@
+package com.onclass.capacity.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
+import com.onclass.capacity.domain.model.spi.CapacityBasicItem;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bootcamp ranking page sorted by number of capabilities, comparing the former path (ranked ids,
+ * capabilities of those ids regrouped in Java, then a COUNT(DISTINCT) scan) with the single
+ * CTE + json_agg statement used by the adapter. Needs a reachable Postgres, see {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BootcampRankingBenchmark {
+
+    private static final int CAPABILITIES = 1_000;
+    private static final int MAX_CAPABILITIES_PER_BOOTCAMP = 16;
+    private static final int PAGE_SIZE = 10;
+    private static final TypeReference<List<CapacityBasicItem>> CAPABILITIES_TYPE = new TypeReference<>() {};
+
+    private static final String RANK_IDS_SQL = """
+        SELECT cb.id_bootcamp AS bootcampId, COUNT(cb.id_capacity) AS capabilitiesCount
+        FROM capacity_bootcamp cb
+        GROUP BY cb.id_bootcamp
+        ORDER BY capabilitiesCount DESC, bootcampId DESC
+        LIMIT :size OFFSET :offset
+    """;
+    private static final String CAPABILITIES_BY_BOOTCAMPS_SQL = """
+        SELECT cb.id_bootcamp AS bootcampId, c.id AS capacityId, c.name AS capacityName
+        FROM capacity_bootcamp cb
+        INNER JOIN capabilities c ON cb.id_capacity = c.id
+        WHERE cb.id_bootcamp IN (:bootcampsIds)
+    """;
+    private static final String COUNT_SQL = "SELECT COUNT(DISTINCT id_bootcamp) FROM capacity_bootcamp";
+    private static final String RANK_PAGE_SQL = """
+        WITH ranked AS (
+            SELECT cb.id_bootcamp AS bootcamp_id,
+                COUNT(cb.id_capacity) AS capabilities_count,
+                COUNT(*) OVER () AS total_bootcamps
+            FROM capacity_bootcamp cb
+            GROUP BY cb.id_bootcamp
+            ORDER BY capabilities_count DESC, bootcamp_id DESC
+            LIMIT :size OFFSET :offset
+        )
+        SELECT r.bootcamp_id AS bootcampId,
+            r.total_bootcamps AS totalBootcamps,
+            json_agg(json_build_object('id', c.id, 'name', c.name) ORDER BY c.id)::text AS capabilities
+        FROM ranked r
+        INNER JOIN capacity_bootcamp cb ON cb.id_bootcamp = r.bootcamp_id
+        INNER JOIN capabilities c ON c.id = cb.id_capacity
+        GROUP BY r.bootcamp_id, r.capabilities_count, r.total_bootcamps
+        ORDER BY r.capabilities_count DESC, r.bootcamp_id DESC
+    """;
+
+    @Param({"10000", "1000000"})
+    private int assignations;
+
+    @Param({"0", "100"})
+    private int page;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BenchmarkDatabase database;
+    private String prefix;
+    private long firstBootcampId;
+    private long lastBootcampId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.connect();
+        prefix = "bench-rank-" + UUID.randomUUID();
+        List<Long> capacityIds = Flux.range(0, CAPABILITIES)
+            .concatMap(index -> database.client()
+                .sql("INSERT INTO capabilities (name, description) VALUES (:name, :description) RETURNING id")
+                .bind("name", prefix + "-" + index)
+                .bind("description", "benchmark")
+                .map(row -> row.get("id", Long.class))
+                .one())
+            .collectList()
+            .block();
+
+        // Bootcamp b gets (b % 16) + 1 capabilities, about 8.5 on average.
+        long bootcamps = assignations * 2L / (MAX_CAPABILITIES_PER_BOOTCAMP + 1);
+        firstBootcampId = System.currentTimeMillis() * 1_000L;
+        lastBootcampId = firstBootcampId + bootcamps;
+        database.client()
+            .sql("""
+                INSERT INTO capacity_bootcamp (id_capacity, id_bootcamp)
+                SELECT (ARRAY[:capacityIds]::BIGINT[])[1 + ((b * 7 + k) % :capabilities)], :firstBootcampId + b
+                FROM generate_series(1, :bootcamps) b, generate_series(0, :maxPerBootcamp - 1) k
+                WHERE k <= b % :maxPerBootcamp
+            """)
+            .bind("capacityIds", capacityIds)
+            .bind("capabilities", CAPABILITIES)
+            .bind("firstBootcampId", firstBootcampId)
+            .bind("bootcamps", bootcamps)
+            .bind("maxPerBootcamp", MAX_CAPABILITIES_PER_BOOTCAMP)
+            .then()
+            .then(database.client().sql("ANALYZE capacity_bootcamp").then())
+            .block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.client()
+            .sql("DELETE FROM capacity_bootcamp WHERE id_bootcamp > :firstBootcampId AND id_bootcamp <= :lastBootcampId")
+            .bind("firstBootcampId", firstBootcampId)
+            .bind("lastBootcampId", lastBootcampId)
+            .then()
+            .then(database.client()
+                .sql("DELETE FROM capabilities WHERE name LIKE :prefix")
+                .bind("prefix", prefix + "%")
+                .then())
+            .block();
+    }
+
+    @Benchmark
+    public CustomPage<CapabilitiesBasicPerBootcamp> threeQueries() {
+        return database.client().sql(RANK_IDS_SQL)
+            .bind("size", PAGE_SIZE)
+            .bind("offset", page * PAGE_SIZE)
+            .map(row -> row.get("bootcampId", Long.class))
+            .all()
+            .collectList()
+            .flatMapMany(bootcampsIds -> bootcampsIds.isEmpty()
+                ? Flux.<CapabilitiesBasicPerBootcamp>empty()
+                : database.client().sql(CAPABILITIES_BY_BOOTCAMPS_SQL)
+                    .bind("bootcampsIds", bootcampsIds)
+                    .map(row -> new Object[]{row.get("bootcampId", Long.class),
+                        new CapacityBasicItem(row.get("capacityId", Long.class), row.get("capacityName", String.class))})
+                    .all()
+                    .groupBy(row -> (Long) row[0])
+                    .flatMap(group -> group.map(row -> (CapacityBasicItem) row[1])
+                        .collectList()
+                        .map(capabilities -> new CapabilitiesBasicPerBootcamp(group.key(), capabilities))))
+            .collectList()
+            .zipWith(database.client().sql(COUNT_SQL).map(row -> row.get(0, Long.class)).one())
+            .map(tuple -> CustomPage.buildCustomPage(tuple.getT1(), page, PAGE_SIZE, tuple.getT2()))
+            .block();
+    }
+
+    @Benchmark
+    public CustomPage<CapabilitiesBasicPerBootcamp> singleStatement() {
+        return database.client().sql(RANK_PAGE_SQL)
+            .bind("size", PAGE_SIZE)
+            .bind("offset", page * PAGE_SIZE)
+            .map(row -> new Object[]{row.get("totalBootcamps", Long.class),
+                new CapabilitiesBasicPerBootcamp(row.get("bootcampId", Long.class), toCapabilities(row.get("capabilities", String.class)))})
+            .all()
+            .collectList()
+            .map(rows -> CustomPage.buildCustomPage(
+                rows.stream().map(row -> (CapabilitiesBasicPerBootcamp) row[1]).toList(),
+                page,
+                PAGE_SIZE,
+                rows.isEmpty() ? 0L : (Long) rows.get(0)[0]))
+            .block();
+    }
+
+    private List<CapacityBasicItem> toCapabilities(String capabilitiesJson) {
+        try {
+            return objectMapper.readValue(Objects.requireNonNull(capabilitiesJson), CAPABILITIES_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.onclass.capacity.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.CapacityPersistenceAdapter;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapperImpl;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.CapacityBootcampProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityBootcampRepository;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Regrouping of the flat bootcamp/capacity rows into one entry per bootcamp done by
+ * {@link CapacityPersistenceAdapter#findCapabilitiesByBootcampsIds(List)}, fed by a stubbed repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BootcampRegroupingBenchmark {
+
+    private static final int CAPABILITIES_PER_BOOTCAMP = 10;
+
+    @Param({"10", "100", "1000"})
+    private int bootcamps;
+
+    private CapacityPersistenceAdapter capacityPersistenceAdapter;
+    private List<Long> bootcampsIds;
+
+    @Setup
+    public void setUp() {
+        List<CapacityBootcampProjection> rows = new ArrayList<>(bootcamps * CAPABILITIES_PER_BOOTCAMP);
+        for (long bootcampId = 1; bootcampId <= bootcamps; bootcampId++) {
+            for (long capacityId = 1; capacityId <= CAPABILITIES_PER_BOOTCAMP; capacityId++) {
+                rows.add(CapacityBootcampProjection.builder()
+                    .bootcampId(bootcampId)
+                    .capacityId(bootcampId * CAPABILITIES_PER_BOOTCAMP + capacityId)
+                    .capacityName("Capacity " + capacityId)
+                    .build());
+            }
+        }
+        Collections.shuffle(rows);
+        bootcampsIds = LongStream.rangeClosed(1, bootcamps).boxed().toList();
+
+        CapacityRepository capacityRepository = Stubs.stub(CapacityRepository.class, Map.of(
+            "findCapabilitiesByBootcampsIds", args -> Flux.fromIterable(rows)));
+        capacityPersistenceAdapter = new CapacityPersistenceAdapter(capacityRepository,
+            Stubs.stub(CapacityBootcampRepository.class, Map.of()), new CapacityEntityMapperImpl(), new ObjectMapper());
+    }
+
+    @Benchmark
+    public List<CapabilitiesBasicPerBootcamp> findCapabilitiesByBootcampsIds() {
+        return capacityPersistenceAdapter.findCapabilitiesByBootcampsIds(bootcampsIds).collectList().block();
+    }
+}
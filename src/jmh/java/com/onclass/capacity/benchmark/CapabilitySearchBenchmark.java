@@ -0,0 +1,149 @@
+package com.onclass.capacity.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a capability search, comparing what clients do today (page through the catalog
+ * sorted by name and filter on their side) with the ranked pg_trgm query used by the adapter.
+ * Needs a reachable Postgres, see {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CapabilitySearchBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int CATALOG_PAGE_SIZE = 1_000;
+    private static final int SEARCH_CANDIDATES = 1_000;
+
+    private static final String CATALOG_PAGE_SQL = """
+        SELECT id, name FROM capabilities
+        WHERE (name, id) > (:lastName, :lastId)
+        ORDER BY name ASC, id ASC
+        LIMIT :size
+    """;
+    private static final String SEARCH_SQL = """
+        WITH candidates AS (
+            (SELECT c.id FROM capabilities c
+                WHERE c.name ILIKE :prefix
+                ORDER BY :text <<-> c.name, c.id
+                LIMIT :candidates)
+            UNION
+            (SELECT c.id FROM capabilities c
+                WHERE :text <% c.name
+                ORDER BY :text <<-> c.name, c.id
+                LIMIT :candidates)
+            UNION
+            (SELECT c.id FROM capabilities c
+                WHERE :text <% c.description
+                ORDER BY :text <<-> c.description, c.id
+                LIMIT :candidates)
+        ), matches AS (
+            SELECT c.id, c.name, c.description,
+                ((CASE WHEN c.name ILIKE :prefix THEN 1 ELSE 0 END)
+                    + GREATEST(word_similarity(:text, c.name), 0.5 * word_similarity(:text, COALESCE(c.description, ''))))::REAL AS score
+            FROM candidates
+            JOIN capabilities c ON c.id = candidates.id
+        )
+        SELECT id, name FROM matches
+        ORDER BY score DESC, id ASC
+        LIMIT :size
+    """;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"kafka", "postgres architecture 4242"})
+    private String text;
+
+    private BenchmarkDatabase database;
+    private String marker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.connect();
+        marker = "bench-search-" + UUID.randomUUID();
+        database.client()
+            .sql("""
+                INSERT INTO capabilities (name, description)
+                SELECT (ARRAY['java', 'spring', 'react', 'kotlin', 'python', 'docker', 'kafka', 'postgres'])[1 + g % 8]
+                    || ' ' || (ARRAY['fundamentals', 'advanced', 'architecture', 'testing', 'operations'])[1 + (g / 8) % 5]
+                    || ' ' || g,
+                    :marker
+                FROM generate_series(1, :rows) g
+            """)
+            .bind("marker", marker)
+            .bind("rows", rows)
+            .then()
+            .then(database.client().sql("ANALYZE capabilities").then())
+            .block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.client()
+            .sql("DELETE FROM capabilities WHERE description = :marker")
+            .bind("marker", marker)
+            .then()
+            .block();
+    }
+
+    @Benchmark
+    public List<String> pageAndFilterOnClient() {
+        String needle = text.toLowerCase(Locale.ROOT);
+        List<String> found = new ArrayList<>();
+        String lastName = "";
+        long lastId = 0;
+        while (found.size() < PAGE_SIZE) {
+            List<Object[]> page = database.client().sql(CATALOG_PAGE_SQL)
+                .bind("lastName", lastName)
+                .bind("lastId", lastId)
+                .bind("size", CATALOG_PAGE_SIZE)
+                .map(row -> new Object[]{row.get("id", Long.class), row.get("name", String.class)})
+                .all()
+                .collectList()
+                .block();
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            for (Object[] row : page) {
+                String name = (String) row[1];
+                if (found.size() < PAGE_SIZE && name.toLowerCase(Locale.ROOT).contains(needle)) {
+                    found.add(name);
+                }
+            }
+            Object[] last = page.get(page.size() - 1);
+            lastId = (Long) last[0];
+            lastName = (String) last[1];
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<String> trigramSearch() {
+        return database.client().sql(SEARCH_SQL)
+            .bind("text", text)
+            .bind("prefix", text + "%")
+            .bind("candidates", SEARCH_CANDIDATES)
+            .bind("size", PAGE_SIZE)
+            .map(row -> row.get("name", String.class))
+            .all()
+            .collectList()
+            .block();
+    }
+}
@@ -0,0 +1,93 @@
+package com.onclass.capacity.benchmark;
+
+import com.onclass.capacity.domain.enums.ItemSortList;
+import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.enums.TotalsMode;
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
+import com.onclass.capacity.domain.model.spi.CapabilitiesPerBootcamp;
+import com.onclass.capacity.domain.model.spi.CapacityBasicItem;
+import com.onclass.capacity.domain.model.spi.CapacityList;
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.model.spi.TechnologyItem;
+import com.onclass.capacity.domain.spi.CapacityPersistencePort;
+import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
+import com.onclass.capacity.domain.usecase.CapacityUseCase;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Enrichment paths of {@link CapacityUseCase} (enrichCapacityInfo through listCapabilities and
+ * enrichBootcampInfo through getCapabilitiesByBootcampsIds) with stubbed persistence and gateway.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CapacityUseCaseBenchmark {
+
+    private static final int CAPABILITIES_PER_BOOTCAMP = 10;
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private CapacityUseCase capacityUseCase;
+    private List<Long> bootcampsIds;
+
+    @Setup
+    public void setUp() {
+        int totalCapabilities = items * CAPABILITIES_PER_BOOTCAMP;
+        List<Capacity> capabilities = LongStream.rangeClosed(1, items)
+            .mapToObj(id -> new Capacity(id, "Capacity " + id, "Description " + id, List.of()))
+            .toList();
+        List<CapacityTechnologies> technologies = LongStream.rangeClosed(1, totalCapabilities)
+            .mapToObj(id -> new CapacityTechnologies(id, List.of(
+                new TechnologyItem(id * 3, "Java"),
+                new TechnologyItem(id * 3 + 1, "Spring"),
+                new TechnologyItem(id * 3 + 2, "Postgres"))))
+            .toList();
+        List<CapabilitiesBasicPerBootcamp> bootcamps = new ArrayList<>(items);
+        for (long bootcampId = 1; bootcampId <= items; bootcampId++) {
+            long firstCapacityId = (bootcampId - 1) * CAPABILITIES_PER_BOOTCAMP + 1;
+            bootcamps.add(new CapabilitiesBasicPerBootcamp(bootcampId, LongStream.range(firstCapacityId, firstCapacityId + CAPABILITIES_PER_BOOTCAMP)
+                .mapToObj(capacityId -> new CapacityBasicItem(capacityId, "Capacity " + capacityId))
+                .toList()));
+        }
+        bootcampsIds = LongStream.rangeClosed(1, items).boxed().toList();
+
+        CapacityPersistencePort capacityPersistencePort = Stubs.stub(CapacityPersistencePort.class, Map.of(
+            "findPaginatedAndSortByName", args -> Flux.fromIterable(capabilities),
+            "countCapabilities", args -> Mono.just((long) items),
+            "findCapabilitiesByBootcampsIds", args -> Flux.fromIterable(bootcamps)));
+        TechnologiesGateway technologiesGateway = Stubs.stub(TechnologiesGateway.class, Map.of(
+            "getTechnologiesByCapabilitiesIds", args -> Mono.just(technologies)));
+        capacityUseCase = new CapacityUseCase(capacityPersistencePort, technologiesGateway,
+            Stubs.stub(TechnologyOutboxPort.class, Map.of()), Stubs.stub(TransactionalOperator.class, Map.of()));
+    }
+
+    @Benchmark
+    public CustomPage<CapacityList> listCapabilitiesSortByName() {
+        return capacityUseCase.listCapabilities(OrderList.ASCENDANT, ItemSortList.NAME, 0, items, TotalsMode.EXACT).block();
+    }
+
+    @Benchmark
+    public List<CapabilitiesPerBootcamp> getCapabilitiesByBootcampsIds() {
+        return capacityUseCase.getCapabilitiesByBootcampsIds(bootcampsIds).collectList().block();
+    }
+}
@@ -0,0 +1,51 @@
+package com.onclass.capacity.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.model.spi.CapacityList;
+import com.onclass.capacity.domain.model.spi.TechnologyItem;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of the {@code CustomPage<CapacityList>} body returned by GET /capacity/all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomPageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CustomPage<CapacityList> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        List<CapacityList> capabilities = LongStream.rangeClosed(1, pageSize)
+            .mapToObj(id -> new CapacityList(id, "Capacity " + id, List.of(
+                new TechnologyItem(id * 3, "Java"),
+                new TechnologyItem(id * 3 + 1, "Spring"),
+                new TechnologyItem(id * 3 + 2, "Postgres"))))
+            .toList();
+        page = CustomPage.buildCustomPage(capabilities, 0, pageSize, 10_000L);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
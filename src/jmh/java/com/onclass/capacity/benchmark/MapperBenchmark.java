@@ -0,0 +1,68 @@
+package com.onclass.capacity.benchmark;
+
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.CapacityEntity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapperImpl;
+import com.onclass.capacity.infrastructure.entrypoints.dto.request.CreateCapacityDTO;
+import com.onclass.capacity.infrastructure.entrypoints.dto.response.BasicCapacityDTO;
+import com.onclass.capacity.infrastructure.entrypoints.mapper.CapacityMapper;
+import com.onclass.capacity.infrastructure.entrypoints.mapper.CapacityMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions between entities, domain models and DTOs used on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private CapacityEntityMapper capacityEntityMapper;
+    private CapacityMapper capacityMapper;
+    private CapacityEntity capacityEntity;
+    private Capacity capacity;
+    private CreateCapacityDTO createCapacityDTO;
+
+    @Setup
+    public void setUp() {
+        capacityEntityMapper = new CapacityEntityMapperImpl();
+        capacityMapper = new CapacityMapperImpl();
+        capacityEntity = CapacityEntity.builder().id(1L).name("Backend").description("Backend development").build();
+        capacity = new Capacity(1L, "Backend", "Backend development", List.of(1L, 2L, 3L));
+        createCapacityDTO = CreateCapacityDTO.builder()
+            .name("Backend")
+            .description("Backend development")
+            .technologies(List.of(1L, 2L, 3L))
+            .build();
+    }
+
+    @Benchmark
+    public Capacity entityToModel() {
+        return capacityEntityMapper.toModel(capacityEntity);
+    }
+
+    @Benchmark
+    public CapacityEntity modelToEntity() {
+        return capacityEntityMapper.toEntity(capacity);
+    }
+
+    @Benchmark
+    public Capacity requestToModel() {
+        return capacityMapper.toCapacity(createCapacityDTO);
+    }
+
+    @Benchmark
+    public BasicCapacityDTO modelToResponse() {
+        return capacityMapper.toBasicCapacityDTO(capacity);
+    }
+}
@@ -0,0 +1,69 @@
+package com.onclass.capacity.benchmark;
+
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.model.spi.TechnologyItem;
+import com.onclass.capacity.domain.utilities.CapacityTechnologiesIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joins every capacity of a gateway response against its technologies, comparing the former
+ * linear lookup per capacity with the {@link CapacityTechnologiesIndex} built once per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TechnologiesJoinBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int capabilities;
+
+    private List<Long> capabilitiesIds;
+    private List<CapacityTechnologies> capacityTechnologies;
+
+    @Setup
+    public void setUp() {
+        capabilitiesIds = new ArrayList<>(capabilities);
+        capacityTechnologies = new ArrayList<>(capabilities);
+        for (long id = 1; id <= capabilities; id++) {
+            capabilitiesIds.add(id);
+            capacityTechnologies.add(new CapacityTechnologies(id, List.of(
+                new TechnologyItem(id * 3, "Java"),
+                new TechnologyItem(id * 3 + 1, "Spring"),
+                new TechnologyItem(id * 3 + 2, "Postgres"))));
+        }
+        Collections.shuffle(capacityTechnologies);
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (Long capacityId : capabilitiesIds) {
+            blackhole.consume(capacityTechnologies.stream()
+                .filter(item -> Objects.equals(item.id(), capacityId))
+                .findFirst()
+                .map(CapacityTechnologies::technologies)
+                .orElse(List.of()));
+        }
+    }
+
+    @Benchmark
+    public void indexedJoin(Blackhole blackhole) {
+        CapacityTechnologiesIndex technologiesIndex = CapacityTechnologiesIndex.of(capacityTechnologies);
+        for (Long capacityId : capabilitiesIds) {
+            blackhole.consume(technologiesIndex.technologiesOf(capacityId));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.onclass.capacity.benchmark;
+
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.validators.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Validator#validateCapacity(Capacity)} for a valid capacity and for one rejected on its name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidatorBenchmark {
+
+    private final Capacity validCapacity = new Capacity(null, "Backend", "Backend development", List.of(1L, 2L, 3L));
+    private final Capacity invalidCapacity = new Capacity(null, "", "Backend development", List.of(1L, 2L, 3L));
+
+    @Benchmark
+    public Capacity validCapacity() {
+        return Validator.validateCapacity(validCapacity).block();
+    }
+
+    @Benchmark
+    public Capacity invalidCapacity() {
+        return Validator.validateCapacity(invalidCapacity).onErrorReturn(invalidCapacity).block();
+    }
+}
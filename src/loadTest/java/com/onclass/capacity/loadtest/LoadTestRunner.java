@@ -0,0 +1,346 @@
+package com.onclass.capacity.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.onclass.capacity.CapacityApplication;
+import com.onclass.capacity.infrastructure.entrypoints.dto.request.AssignCapabilitiesDTO;
+import com.onclass.capacity.infrastructure.entrypoints.dto.request.CreateCapacityDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Boots the service against {@link StubTechnologyMngrServer} and a local Postgres, seeds data, then
+ * drives every route of RouterRest at a fixed arrival rate. Each scenario reports latency
+ * percentiles, throughput, status codes and allocation rate, and the whole run is written as JSON
+ * under {@code loadtest.output-dir} so runs can be diffed.
+ */
+public final class LoadTestRunner {
+
+    private static final int SEED_PAGE_SIZE = 100;
+    private static final int MAX_TECHNOLOGY_ID = 150;
+    private static final long HISTOGRAM_MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final String IDENTICAL_LIST_URI = "/capacity/all?sort=asc&parameter=name&page=0&size=10";
+    private static final String LIST_SINGLE_FLIGHT = "listCapabilities";
+
+    private final LoadTestSettings settings;
+    private final WebClient client;
+    private final StubTechnologyMngrServer stub;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong capabilitySequence = new AtomicLong();
+    private final AtomicLong bootcampSequence;
+    private final AtomicLong deletedBootcampSequence;
+    private final long firstBootcampId;
+    private List<Long> capabilitiesIds = List.of();
+
+    private LoadTestRunner(LoadTestSettings settings, WebClient client, StubTechnologyMngrServer stub) {
+        this.settings = settings;
+        this.client = client;
+        this.stub = stub;
+        this.firstBootcampId = System.currentTimeMillis() % 1_000_000L * 1_000L;
+        this.bootcampSequence = new AtomicLong(firstBootcampId + settings.seedBootcamps());
+        this.deletedBootcampSequence = new AtomicLong(firstBootcampId + settings.seedBootcamps());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (StubTechnologyMngrServer stub = new StubTechnologyMngrServer(settings);
+             ConfigurableApplicationContext application = startApplication(settings, stub)) {
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+            new LoadTestRunner(settings, client, stub).run();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestSettings settings, StubTechnologyMngrServer stub) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("technology-mngr.base-url", stub.baseUrl());
+        if (settings.r2dbcUrl() != null) {
+            properties.put("spring.r2dbc.url", settings.r2dbcUrl());
+        }
+        copySystemProperty("loadtest.r2dbc.username", "spring.r2dbc.username", properties);
+        copySystemProperty("loadtest.r2dbc.password", "spring.r2dbc.password", properties);
+        return new SpringApplicationBuilder(CapacityApplication.class)
+            .properties(properties)
+            .run();
+    }
+
+    private static void copySystemProperty(String source, String target, Map<String, Object> properties) {
+        String value = System.getProperty(source);
+        if (value != null) {
+            properties.put(target, value);
+        }
+    }
+
+    private void run() throws Exception {
+        seed();
+        List<Scenario> scenarios = List.of(
+            new Scenario("POST /capacity", this::createCapacity),
+            new Scenario("POST /capacity/assign", this::assignCapabilities),
+            new Scenario("GET /capacity/all?parameter=name", () -> get("/capacity/all?sort=asc&parameter=name&page=" + randomPage() + "&size=10")),
+            new Scenario("GET /capacity/all?parameter=technologies", () -> get("/capacity/all?sort=desc&parameter=technologies&page=" + randomPage() + "&size=10")),
+            new Scenario("GET /capacity/search", () -> get("/capacity/search?q=" + capabilityPrefix() + "&size=10")),
+            new Scenario("GET /capacity/bootcamps_ids", () -> get("/capacity/bootcamps_ids?capabilitiesIds=" + randomBootcampsIds(10))),
+            new Scenario("GET /capacity/bootcamps", () -> get("/capacity/bootcamps?sort=desc&page=" + randomPage() + "&size=10")),
+            new Scenario("DELETE /capacity/bootcamp/{id}", this::deleteBootcamp));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("runId", runId);
+        report.put("startedAt", Instant.now().toString());
+        report.put("settings", settings.toString());
+        List<ScenarioResult> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            drive(scenario, settings.warmup(), null);
+            ScenarioResult result = drive(scenario, settings.duration(), new ConcurrentHistogram(HISTOGRAM_MAX_MICROS, 3));
+            System.out.println(result.summary());
+            results.add(result);
+        }
+        report.put("scenarios", results);
+        report.put("coalescing", driveIdenticalListRequests());
+        report.put("health", get("/actuator/health", JsonNode.class).block());
+        report.put("stubMaxConcurrency", stub.maxConcurrency());
+
+        Files.createDirectories(settings.outputDir());
+        Path output = settings.outputDir().resolve("results-" + DateTimeFormatter.ISO_INSTANT.format(Instant.now()).replace(':', '-') + ".json");
+        objectMapper.writeValue(output.toFile(), report);
+        System.out.println("Load test results written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * Sends the same list request at the configured rate and reports how many of those requests the
+     * single-flight layer executed against the use case, read from its actuator counters.
+     */
+    private Map<String, Object> driveIdenticalListRequests() {
+        Scenario scenario = new Scenario("GET /capacity/all (identical)", () -> get(IDENTICAL_LIST_URI));
+        drive(scenario, settings.warmup(), null);
+        double requestsBefore = singleFlightCount("requests");
+        double executionsBefore = singleFlightCount("executions");
+        ScenarioResult result = drive(scenario, settings.duration(), new ConcurrentHistogram(HISTOGRAM_MAX_MICROS, 3));
+        double requests = singleFlightCount("requests") - requestsBefore;
+        double executions = singleFlightCount("executions") - executionsBefore;
+        System.out.println(result.summary());
+        System.out.printf("single-flight %s: requests=%.0f executions=%.0f%n", LIST_SINGLE_FLIGHT, requests, executions);
+
+        Map<String, Object> coalescing = new LinkedHashMap<>();
+        coalescing.put("scenario", result);
+        coalescing.put("requests", requests);
+        coalescing.put("executions", executions);
+        coalescing.put("coalescingRatio", requests == 0 ? 0.0 : 1 - executions / requests);
+        return coalescing;
+    }
+
+    private double singleFlightCount(String counter) {
+        JsonNode metric = get("/actuator/metrics/capacity.singleflight." + counter + "?tag=operation:" + LIST_SINGLE_FLIGHT, JsonNode.class).block();
+        return metric == null ? 0.0 : metric.path("measurements").path(0).path("value").asDouble();
+    }
+
+    private ScenarioResult drive(Scenario scenario, Duration duration, Histogram histogram) {
+        long ticks = duration.toSeconds() * settings.ratePerSecond();
+        Duration interval = Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond());
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder transportErrors = new LongAdder();
+        LongAdder dropped = new LongAdder();
+
+        long allocatedBefore = allocatedBytes();
+        long startNanos = System.nanoTime();
+        Flux.interval(interval)
+            .take(ticks)
+            .onBackpressureDrop(tick -> dropped.increment())
+            .flatMap(tick -> timed(scenario.request(), histogram, statuses, transportErrors), settings.maxInFlight())
+            .blockLast();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        if (histogram == null) {
+            return null;
+        }
+        double elapsedSeconds = elapsedNanos / 1e9;
+        Map<String, Long> statusCounts = statuses.entrySet().stream()
+            .collect(Collectors.toMap(entry -> entry.getKey().toString(), entry -> entry.getValue().sum(), Long::sum, LinkedHashMap::new));
+        return new ScenarioResult(
+            scenario.name(),
+            histogram.getTotalCount(),
+            histogram.getTotalCount() / elapsedSeconds,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0,
+            allocated / elapsedSeconds / (1024 * 1024),
+            statusCounts,
+            transportErrors.sum(),
+            dropped.sum());
+    }
+
+    private Mono<Integer> timed(Supplier<Mono<Integer>> request, Histogram histogram,
+                                Map<Integer, LongAdder> statuses, LongAdder transportErrors) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.get()
+                .doOnNext(status -> {
+                    if (histogram != null) {
+                        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HISTOGRAM_MAX_MICROS));
+                        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    }
+                })
+                .onErrorResume(ex -> {
+                    transportErrors.increment();
+                    return Mono.empty();
+                });
+        });
+    }
+
+    private void seed() {
+        Flux.range(0, settings.seedCapabilities())
+            .flatMap(index -> createCapacity(), 32)
+            .blockLast();
+        List<Long> ids = new ArrayList<>();
+        String prefix = capabilityPrefix();
+        int page = 0;
+        boolean lastPage = false;
+        while (!lastPage) {
+            JsonNode body = get("/capacity/all?sort=asc&parameter=name&size=" + SEED_PAGE_SIZE + "&page=" + page, JsonNode.class).block();
+            if (body == null) {
+                break;
+            }
+            body.path("data").forEach(capacity -> {
+                if (capacity.path("name").asText().startsWith(prefix)) {
+                    ids.add(capacity.path("id").asLong());
+                }
+            });
+            lastPage = body.path("isLastPage").asBoolean(true);
+            page++;
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Seeding created no capabilities, check the database connection");
+        }
+        capabilitiesIds = List.copyOf(ids);
+        stub.knownCapabilities(capabilitiesIds);
+
+        LongStream.range(firstBootcampId, firstBootcampId + settings.seedBootcamps())
+            .forEach(bootcampId -> assign(bootcampId).block());
+        System.out.printf("Seeded %d capabilities and %d bootcamps%n", capabilitiesIds.size(), settings.seedBootcamps());
+    }
+
+    private Mono<Integer> createCapacity() {
+        long sequence = capabilitySequence.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CreateCapacityDTO capacity = CreateCapacityDTO.builder()
+            .name(capabilityPrefix() + sequence)
+            .description("Load test capability " + sequence)
+            .technologies(random.longs(random.nextInt(3, 8), 1, MAX_TECHNOLOGY_ID).boxed().toList())
+            .build();
+        return exchange(client.post().uri("/capacity").bodyValue(capacity));
+    }
+
+    private Mono<Integer> assignCapabilities() {
+        return assign(bootcampSequence.incrementAndGet());
+    }
+
+    private Mono<Integer> assign(long bootcampId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> assigned = random.ints(random.nextInt(1, 6), 0, capabilitiesIds.size())
+            .distinct()
+            .mapToObj(capabilitiesIds::get)
+            .toList();
+        AssignCapabilitiesDTO assignation = AssignCapabilitiesDTO.builder()
+            .bootcampId(bootcampId)
+            .capabilitiesIds(assigned)
+            .build();
+        return exchange(client.post().uri("/capacity/assign").bodyValue(assignation));
+    }
+
+    private Mono<Integer> deleteBootcamp() {
+        long bootcampId = deletedBootcampSequence.incrementAndGet();
+        if (bootcampId > bootcampSequence.get()) {
+            bootcampId = firstBootcampId + ThreadLocalRandom.current().nextLong(settings.seedBootcamps());
+        }
+        return exchange(client.delete().uri("/capacity/bootcamp/{id}", bootcampId));
+    }
+
+    private Mono<Integer> get(String uri) {
+        return exchange(client.get().uri(uri).accept(MediaType.APPLICATION_JSON));
+    }
+
+    private <T> Mono<T> get(String uri, Class<T> type) {
+        return client.get().uri(uri).retrieve().bodyToMono(type);
+    }
+
+    private Mono<Integer> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    private String randomBootcampsIds(int count) {
+        long highest = bootcampSequence.get();
+        return ThreadLocalRandom.current().longs(count, firstBootcampId, highest + 1)
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining(","));
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(Math.max(1, capabilitiesIds.size() / 10));
+    }
+
+    private String capabilityPrefix() {
+        return "lt-" + runId + "-";
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    private record Scenario(String name, Supplier<Mono<Integer>> request) {
+    }
+
+    record ScenarioResult(
+            String endpoint,
+            long requests,
+            double throughputPerSecond,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis,
+            double allocationRateMbPerSecond,
+            Map<String, Long> statusCodes,
+            long transportErrors,
+            long droppedTicks
+        ) {
+
+        String summary() {
+            return String.format("%-45s n=%-7d %8.1f req/s  p50=%7.2fms  p99=%7.2fms  p999=%7.2fms  alloc=%8.1f MB/s  status=%s errors=%d dropped=%d",
+                endpoint, requests, throughputPerSecond, p50Millis, p99Millis, p999Millis, allocationRateMbPerSecond,
+                statusCodes, transportErrors, droppedTicks);
+        }
+    }
+}
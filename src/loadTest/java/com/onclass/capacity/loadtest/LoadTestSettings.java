@@ -0,0 +1,39 @@
+package com.onclass.capacity.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test knobs, read from {@code loadtest.*} system properties (forwarded by the Gradle task).
+ */
+record LoadTestSettings(
+        int ratePerSecond,
+        Duration duration,
+        Duration warmup,
+        int maxInFlight,
+        int seedCapabilities,
+        int seedBootcamps,
+        long stubLatencyMillis,
+        long stubJitterMillis,
+        long stubLatencyPerConcurrentCallMillis,
+        double stubErrorRate,
+        String r2dbcUrl,
+        Path outputDir
+    ) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+            Integer.getInteger("loadtest.rate", 50),
+            Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30L)),
+            Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5L)),
+            Integer.getInteger("loadtest.max-in-flight", 256),
+            Integer.getInteger("loadtest.seed-capabilities", 500),
+            Integer.getInteger("loadtest.seed-bootcamps", 100),
+            Long.getLong("loadtest.stub.latency-ms", 20L),
+            Long.getLong("loadtest.stub.jitter-ms", 30L),
+            Long.getLong("loadtest.stub.latency-per-concurrent-call-ms", 0L),
+            Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0.01")),
+            System.getProperty("loadtest.r2dbc.url"),
+            Path.of(System.getProperty("loadtest.output-dir", "build/load-test")));
+    }
+}
@@ -0,0 +1,134 @@
+package com.onclass.capacity.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.model.spi.TechnologyItem;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import com.onclass.capacity.infrastructure.entrypoints.util.ResponseDTO;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process stand-in for technology-mngr. Every route answers after a configurable latency plus
+ * jitter and fails with a 500 at a configurable rate, so the bulkhead, retry and circuit breaker
+ * of the real adapter are exercised. Latency can also grow with the calls in flight, which gives
+ * the adaptive limiter a knee to settle on; the highest concurrency seen is reported.
+ */
+final class StubTechnologyMngrServer implements AutoCloseable {
+
+    private static final String BASE_PATH = "/technology";
+    private static final String PARAM_CAPABILITIES_IDS = "capabilitiesIds";
+
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DisposableServer server;
+    private final AtomicInteger concurrency = new AtomicInteger();
+    private final AtomicInteger maxConcurrency = new AtomicInteger();
+    private volatile List<Long> knownCapabilities = List.of();
+
+    StubTechnologyMngrServer(LoadTestSettings settings) {
+        this.settings = settings;
+        this.server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                .post(BASE_PATH + "/assign", (request, response) ->
+                    respond(response, () -> new ResponseDTO("Technologies assigned")))
+                .get(BASE_PATH + "/capabilities_ids", (request, response) ->
+                    respond(response, () -> technologiesOf(idsParam(request))))
+                .get(BASE_PATH + "/capabilities", (request, response) ->
+                    respond(response, () -> sortedPage(request)))
+                .delete(BASE_PATH + "/capabilities", (request, response) ->
+                    respond(response, () -> new ResponseDTO("Technologies deleted"))))
+            .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port() + BASE_PATH;
+    }
+
+    void knownCapabilities(List<Long> capabilitiesIds) {
+        this.knownCapabilities = List.copyOf(capabilitiesIds);
+    }
+
+    int maxConcurrency() {
+        return maxConcurrency.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, Supplier<Object> body) {
+        int inFlight = concurrency.incrementAndGet();
+        maxConcurrency.accumulateAndGet(inFlight, Math::max);
+        return Mono.delay(latency(inFlight))
+            .then(Mono.defer(() -> {
+                if (ThreadLocalRandom.current().nextDouble() < settings.stubErrorRate()) {
+                    return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just("{\"message\":\"injected failure\"}"))
+                        .then();
+                }
+                return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.just(toJson(body.get())))
+                    .then();
+            }))
+            .doFinally(signal -> concurrency.decrementAndGet());
+    }
+
+    private Duration latency(int inFlight) {
+        long jitter = settings.stubJitterMillis() > 0 ? ThreadLocalRandom.current().nextLong(settings.stubJitterMillis() + 1) : 0;
+        return Duration.ofMillis(settings.stubLatencyMillis() + settings.stubLatencyPerConcurrentCallMillis() * inFlight + jitter);
+    }
+
+    private List<CapacityTechnologies> technologiesOf(List<Long> capabilitiesIds) {
+        return capabilitiesIds.stream()
+            .map(id -> new CapacityTechnologies(id, List.of(
+                new TechnologyItem(id % 50 + 1, "Technology " + (id % 50 + 1)),
+                new TechnologyItem(id % 50 + 51, "Technology " + (id % 50 + 51)),
+                new TechnologyItem(id % 50 + 101, "Technology " + (id % 50 + 101)))))
+            .toList();
+    }
+
+    private CustomPage<CapacityTechnologies> sortedPage(HttpServerRequest request) {
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        int page = Integer.parseInt(query.parameters().getOrDefault("page", List.of("0")).get(0));
+        int size = Integer.parseInt(query.parameters().getOrDefault("size", List.of("10")).get(0));
+        List<Long> capabilities = knownCapabilities;
+        int from = Math.min(page * size, capabilities.size());
+        int to = Math.min(from + size, capabilities.size());
+        return CustomPage.buildCustomPage(technologiesOf(capabilities.subList(from, to)), page, size, (long) capabilities.size());
+    }
+
+    private List<Long> idsParam(HttpServerRequest request) {
+        List<String> values = new QueryStringDecoder(request.uri()).parameters().getOrDefault(PARAM_CAPABILITIES_IDS, List.of());
+        return values.stream()
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .filter(value -> !value.isBlank())
+            .map(Long::parseLong)
+            .toList();
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
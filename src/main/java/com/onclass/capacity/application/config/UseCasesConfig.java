@@ -1,36 +1,169 @@
 package com.onclass.capacity.application.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onclass.capacity.domain.api.CapacityServicePort;
 import com.onclass.capacity.domain.spi.CapacityPersistencePort;
 import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
 import com.onclass.capacity.domain.usecase.CapacityUseCase;
+import com.onclass.capacity.domain.usecase.CoalescingCapacityUseCase;
+import com.onclass.capacity.domain.usecase.TechnologyOutboxRelay;
+import com.onclass.capacity.domain.utilities.SingleFlight;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.CapacityPersistenceAdapter;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.TechnologyOutboxPersistenceAdapter;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityBootcampRepository;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.TechnologyOutboxRepository;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot.CatalogSnapshotPersistenceAdapter;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot.CatalogSnapshotProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.r2dbc.spi.ConnectionFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
 public class UseCasesConfig {
         private final CapacityRepository capacityRepository;
         private final CapacityBootcampRepository capacityBootcampRepository;
+        private final TechnologyOutboxRepository technologyOutboxRepository;
         private final CapacityEntityMapper capacityEntityMapper;
+        private final ObjectMapper objectMapper;
 
         @Bean
-        public CapacityPersistencePort capacityPersistencePort() {
-                return new CapacityPersistenceAdapter(capacityRepository, capacityBootcampRepository, capacityEntityMapper);
+        public CapacityPersistencePort capacityPersistencePort(
+            CatalogSnapshotProperties catalogSnapshotProperties,
+            ConnectionFactory connectionFactory,
+            ReactiveTransactionManager reactiveTransactionManager,
+            MeterRegistry meterRegistry){
+                CapacityPersistencePort capacityPersistenceAdapter =
+                    new CapacityPersistenceAdapter(capacityRepository, capacityBootcampRepository, capacityEntityMapper, objectMapper);
+                if (!catalogSnapshotProperties.isEnabled()) {
+                        return capacityPersistenceAdapter;
+                }
+                DefaultTransactionDefinition snapshotDefinition = new DefaultTransactionDefinition();
+                snapshotDefinition.setReadOnly(true);
+                snapshotDefinition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+                CatalogSnapshotPersistenceAdapter catalogSnapshotAdapter = new CatalogSnapshotPersistenceAdapter(
+                    capacityPersistenceAdapter, capacityRepository, capacityBootcampRepository, capacityEntityMapper,
+                    connectionFactory, TransactionalOperator.create(reactiveTransactionManager, snapshotDefinition),
+                    catalogSnapshotProperties);
+                bindCatalogSnapshotMetrics(catalogSnapshotAdapter, meterRegistry);
+                catalogSnapshotAdapter.start();
+                return catalogSnapshotAdapter;
         }
 
         @Bean
-        public CapacityServicePort capacityServicePort(
+        public TechnologyOutboxPort technologyOutboxPort() {
+                return new TechnologyOutboxPersistenceAdapter(technologyOutboxRepository, objectMapper);
+        }
+
+        @Bean
+        public CapacityUseCase capacityUseCase(
             CapacityPersistencePort capacityPersistencePort,
             TechnologiesGateway technologiesGateway,
+            TechnologyOutboxPort technologyOutboxPort,
             TransactionalOperator transactionalOperator){
-                return new CapacityUseCase(capacityPersistencePort, technologiesGateway, transactionalOperator);
+                return new CapacityUseCase(capacityPersistencePort, technologiesGateway, technologyOutboxPort, transactionalOperator);
+        }
+
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        public TechnologyOutboxRelay technologyOutboxRelay(
+            TechnologyOutboxPort technologyOutboxPort,
+            TechnologiesGateway technologiesGateway,
+            CapacityPersistencePort capacityPersistencePort,
+            TransactionalOperator transactionalOperator,
+            MeterRegistry meterRegistry){
+                TechnologyOutboxRelay technologyOutboxRelay =
+                    new TechnologyOutboxRelay(technologyOutboxPort, technologiesGateway, capacityPersistencePort, transactionalOperator);
+                bindOutboxRelayMetrics(technologyOutboxRelay, meterRegistry);
+                return technologyOutboxRelay;
+        }
+
+        @Bean
+        @Primary
+        public CapacityServicePort capacityServicePort(CapacityUseCase capacityUseCase, MeterRegistry meterRegistry){
+                CoalescingCapacityUseCase coalescingCapacityUseCase = new CoalescingCapacityUseCase(capacityUseCase);
+                coalescingCapacityUseCase.singleFlights()
+                    .forEach(singleFlight -> bindSingleFlightMetrics(singleFlight, meterRegistry));
+                return coalescingCapacityUseCase;
+        }
+
+        private void bindSingleFlightMetrics(SingleFlight<?, ?> singleFlight, MeterRegistry meterRegistry) {
+                FunctionCounter.builder("capacity.singleflight.requests", singleFlight, SingleFlight::requests)
+                    .tag("operation", singleFlight.getName())
+                    .description("Read requests received by the coalescing layer")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.singleflight.executions", singleFlight, SingleFlight::executions)
+                    .tag("operation", singleFlight.getName())
+                    .description("Read requests actually executed against the use case")
+                    .register(meterRegistry);
+                Gauge.builder("capacity.singleflight.coalescing.ratio", singleFlight, SingleFlight::coalescingRatio)
+                    .tag("operation", singleFlight.getName())
+                    .description("Share of read requests served by joining an in-flight execution")
+                    .register(meterRegistry);
+        }
+
+        private void bindCatalogSnapshotMetrics(CatalogSnapshotPersistenceAdapter catalogSnapshotAdapter, MeterRegistry meterRegistry) {
+                Gauge.builder("capacity.catalog.snapshot.capabilities", catalogSnapshotAdapter, CatalogSnapshotPersistenceAdapter::capabilitiesCount)
+                    .description("Capabilities held by the in-process catalog snapshot")
+                    .register(meterRegistry);
+                Gauge.builder("capacity.catalog.snapshot.bootcamps", catalogSnapshotAdapter, CatalogSnapshotPersistenceAdapter::bootcampsCount)
+                    .description("Bootcamps ranked by the in-process catalog snapshot")
+                    .register(meterRegistry);
+                TimeGauge.builder("capacity.catalog.snapshot.age", catalogSnapshotAdapter, TimeUnit.SECONDS, CatalogSnapshotPersistenceAdapter::ageSeconds)
+                    .description("Time since the catalog snapshot in use was loaded")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.catalog.snapshot.refreshes", catalogSnapshotAdapter, CatalogSnapshotPersistenceAdapter::refreshes)
+                    .description("Catalog snapshot reloads")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.catalog.snapshot.reads", catalogSnapshotAdapter, CatalogSnapshotPersistenceAdapter::snapshotReads)
+                    .tag("source", "snapshot")
+                    .description("Catalog list reads by where they were served from")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.catalog.snapshot.reads", catalogSnapshotAdapter, CatalogSnapshotPersistenceAdapter::databaseReads)
+                    .tag("source", "database")
+                    .description("Catalog list reads by where they were served from")
+                    .register(meterRegistry);
+        }
+
+        private void bindOutboxRelayMetrics(TechnologyOutboxRelay technologyOutboxRelay, MeterRegistry meterRegistry) {
+                Gauge.builder("capacity.outbox.backlog", technologyOutboxRelay, TechnologyOutboxRelay::pending)
+                    .description("Technology operations waiting in the outbox to be delivered")
+                    .register(meterRegistry);
+                Gauge.builder("capacity.outbox.dead", technologyOutboxRelay, TechnologyOutboxRelay::failed)
+                    .description("Technology operations that exhausted their attempts and need manual replay")
+                    .register(meterRegistry);
+                TimeGauge.builder("capacity.outbox.lag", technologyOutboxRelay, TimeUnit.SECONDS, TechnologyOutboxRelay::lagSeconds)
+                    .description("Age of the oldest technology operation waiting in the outbox")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.outbox.sent", technologyOutboxRelay, TechnologyOutboxRelay::sent)
+                    .description("Technology operations delivered by the outbox relay")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.outbox.failures", technologyOutboxRelay, TechnologyOutboxRelay::failures)
+                    .description("Failed delivery attempts of the outbox relay")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.outbox.compensations", technologyOutboxRelay, TechnologyOutboxRelay::compensations)
+                    .description("Capabilities deleted because their technology assignment failed for good")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.outbox.compensation.failures", technologyOutboxRelay, TechnologyOutboxRelay::compensationFailures)
+                    .description("Capabilities that could not be deleted after their technology assignment failed for good")
+                    .register(meterRegistry);
+                FunctionCounter.builder("capacity.outbox.relay.errors", technologyOutboxRelay, TechnologyOutboxRelay::relayErrors)
+                    .description("Outbox relay polls that failed before delivering or refreshing the backlog")
+                    .register(meterRegistry);
         }
 }
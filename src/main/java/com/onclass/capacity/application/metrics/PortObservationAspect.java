@@ -0,0 +1,85 @@
+package com.onclass.capacity.application.metrics;
+
+import com.onclass.capacity.domain.api.CapacityServicePort;
+import com.onclass.capacity.domain.spi.CapacityPersistencePort;
+import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+/**
+ * Observes every call made through the domain ports, from subscription to termination of the returned
+ * publisher. Each call yields a {@value #OBSERVATION_PORT_CALLS} timer and a span that is the parent of
+ * whatever the call does downstream (nested port calls, R2DBC queries, WebClient requests). Tags tell the
+ * port, the implementation behind it (e.g. the caching or the remote technology adapter) and the method,
+ * so a slow route can be split into SQL, technology-mngr and use case time. SLO buckets are configured in
+ * application.yaml.
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class PortObservationAspect {
+
+    static final String OBSERVATION_PORT_CALLS = "capacity.port.calls";
+    private static final List<Class<?>> PORTS = List.of(CapacityServicePort.class, CapacityPersistencePort.class, TechnologiesGateway.class);
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("execution(* com.onclass.capacity.domain.api.CapacityServicePort.*(..))"
+        + " || execution(* com.onclass.capacity.domain.spi.CapacityPersistencePort.*(..))"
+        + " || execution(* com.onclass.capacity.domain.spi.TechnologiesGateway.*(..))")
+    public Object observePortCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        Class<?> adapter = AopUtils.getTargetClass(joinPoint.getTarget());
+        String port = PORTS.stream()
+            .filter(portType -> portType.isAssignableFrom(adapter))
+            .map(Class::getSimpleName)
+            .findFirst()
+            .orElse(adapter.getSimpleName());
+        String method = joinPoint.getSignature().getName();
+        if (result instanceof Mono<?> mono) {
+            return Mono.deferContextual(contextView -> {
+                Observation observation = start(port, adapter, method, contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+                return mono.doOnError(observation::error)
+                    .doFinally(signal -> stop(observation, signal))
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.deferContextual(contextView -> {
+                Observation observation = start(port, adapter, method, contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+                return flux.doOnError(observation::error)
+                    .doFinally(signal -> stop(observation, signal))
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+            });
+        }
+        return result;
+    }
+
+    private Observation start(String port, Class<?> adapter, String method, Observation parent) {
+        return Observation.createNotStarted(OBSERVATION_PORT_CALLS, observationRegistry)
+            .contextualName(port + "." + method)
+            .lowCardinalityKeyValue("port", port)
+            .lowCardinalityKeyValue("adapter", adapter.getSimpleName())
+            .lowCardinalityKeyValue("method", method)
+            .parentObservation(parent)
+            .start();
+    }
+
+    private void stop(Observation observation, SignalType signal) {
+        observation.lowCardinalityKeyValue("outcome", signal.name()).stop();
+    }
+}
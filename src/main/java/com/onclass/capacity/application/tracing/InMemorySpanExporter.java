@@ -0,0 +1,35 @@
+package com.onclass.capacity.application.tracing;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent traces kept by the tail sampler, newest first, so slow requests can be inspected
+ * through the slowtraces actuator endpoint or asserted in tests without a tracing backend.
+ */
+public class InMemorySpanExporter {
+
+    private final int capacity;
+    private final Deque<SampledTrace> traces = new ArrayDeque<>();
+
+    public InMemorySpanExporter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void export(SampledTrace trace) {
+        if (traces.size() == capacity) {
+            traces.removeLast();
+        }
+        traces.addFirst(trace);
+    }
+
+    public synchronized List<SampledTrace> traces() {
+        return new ArrayList<>(traces);
+    }
+
+    public synchronized void clear() {
+        traces.clear();
+    }
+}
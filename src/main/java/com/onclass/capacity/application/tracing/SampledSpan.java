@@ -0,0 +1,18 @@
+package com.onclass.capacity.application.tracing;
+
+import java.util.Map;
+
+public record SampledSpan(
+        String spanId,
+        String parentId,
+        String name,
+        long startMicros,
+        long durationMicros,
+        Map<String, String> tags,
+        String error
+    ) {
+
+    public long finishMicros() {
+        return startMicros + durationMicros;
+    }
+}
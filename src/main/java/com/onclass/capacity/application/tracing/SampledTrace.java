@@ -0,0 +1,12 @@
+package com.onclass.capacity.application.tracing;
+
+import java.util.List;
+
+public record SampledTrace(
+        String traceId,
+        String rootName,
+        long durationMicros,
+        List<SampledSpan> criticalPath,
+        List<SampledSpan> spans
+    ) {
+}
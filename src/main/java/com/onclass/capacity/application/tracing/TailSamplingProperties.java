@@ -0,0 +1,17 @@
+package com.onclass.capacity.application.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("tracing.tail-sampling")
+public class TailSamplingProperties {
+    private Duration threshold = Duration.ofMillis(500);
+    private long maxPendingTraces = 10_000;
+    private Duration pendingTtl = Duration.ofMinutes(1);
+    private int retainedTraces = 100;
+}
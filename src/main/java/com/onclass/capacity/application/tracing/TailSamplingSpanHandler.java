@@ -0,0 +1,90 @@
+package com.onclass.capacity.application.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Tail-based sampling: every span is recorded, buffered per trace until the local root span ends, and the
+ * whole trace is exported only when the root took at least the configured threshold. Traces whose root
+ * never ends (or ends after the pending TTL) are evicted from the buffer and dropped.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    private final long thresholdMicros;
+    private final InMemorySpanExporter exporter;
+    private final Cache<String, List<MutableSpan>> pendingTraces;
+
+    public TailSamplingSpanHandler(TailSamplingProperties properties, InMemorySpanExporter exporter) {
+        this.thresholdMicros = properties.getThreshold().toNanos() / 1_000;
+        this.exporter = exporter;
+        this.pendingTraces = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxPendingTraces())
+            .expireAfterWrite(properties.getPendingTtl())
+            .build();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        String traceId = context.traceIdString();
+        List<MutableSpan> spans = pendingTraces.get(traceId, id -> Collections.synchronizedList(new ArrayList<>()));
+        spans.add(span);
+        if (context.spanId() != context.localRootId()) {
+            return true;
+        }
+        pendingTraces.invalidate(traceId);
+        long durationMicros = span.finishTimestamp() - span.startTimestamp();
+        if (durationMicros >= thresholdMicros) {
+            List<SampledSpan> sampledSpans;
+            synchronized (spans) {
+                sampledSpans = spans.stream().map(TailSamplingSpanHandler::toSampledSpan).toList();
+            }
+            exporter.export(new SampledTrace(traceId, span.name(), durationMicros,
+                criticalPath(span.id(), sampledSpans), sampledSpans));
+        }
+        return true;
+    }
+
+    /**
+     * Walks down from the root, following at each level the child that finished last: the chain of spans
+     * the request actually waited on.
+     */
+    static List<SampledSpan> criticalPath(String rootId, List<SampledSpan> spans) {
+        Map<String, List<SampledSpan>> children = spans.stream()
+            .filter(span -> span.parentId() != null)
+            .collect(Collectors.groupingBy(SampledSpan::parentId));
+        List<SampledSpan> path = new ArrayList<>();
+        SampledSpan current = spans.stream().filter(span -> span.spanId().equals(rootId)).findFirst().orElse(null);
+        while (current != null) {
+            path.add(current);
+            current = children.getOrDefault(current.spanId(), List.of()).stream()
+                .max(Comparator.comparingLong(SampledSpan::finishMicros))
+                .orElse(null);
+        }
+        return path;
+    }
+
+    private static SampledSpan toSampledSpan(MutableSpan span) {
+        return new SampledSpan(
+            span.id(),
+            span.parentId(),
+            Objects.requireNonNullElse(span.name(), ""),
+            span.startTimestamp(),
+            span.finishTimestamp() - span.startTimestamp(),
+            Map.copyOf(span.tags()),
+            span.error() == null ? span.tag("error") : span.error().toString());
+    }
+}
@@ -0,0 +1,18 @@
+package com.onclass.capacity.application.tracing;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public InMemorySpanExporter inMemorySpanExporter(TailSamplingProperties properties) {
+        return new InMemorySpanExporter(properties.getRetainedTraces());
+    }
+
+    @Bean
+    public TailSamplingSpanHandler tailSamplingSpanHandler(TailSamplingProperties properties, InMemorySpanExporter inMemorySpanExporter) {
+        return new TailSamplingSpanHandler(properties, inMemorySpanExporter);
+    }
+}
@@ -2,9 +2,13 @@ package com.onclass.capacity.domain.api;
 
 import com.onclass.capacity.domain.enums.ItemSortList;
 import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.enums.TotalsMode;
 import com.onclass.capacity.domain.model.spi.CapabilitiesPerBootcamp;
+import com.onclass.capacity.domain.model.BootcampCountDrift;
 import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.CapacityRegistrationResult;
 import com.onclass.capacity.domain.model.spi.CapacityList;
+import com.onclass.capacity.domain.utilities.CursorPage;
 import com.onclass.capacity.domain.utilities.CustomPage;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -13,10 +17,34 @@ import java.util.List;
 
 public interface CapacityServicePort {
     Mono<Capacity> registerCapacity(Capacity capacity);
-    Mono<CustomPage<CapacityList>> listCapabilities(OrderList order, ItemSortList item, Integer page, Integer size);
+    Flux<CapacityRegistrationResult> registerCapabilities(Flux<Capacity> capabilities);
+    /**
+     * Pages capabilities by offset. {@code totals} applies to both sorts; cursor pages
+     * ({@link #listCapabilitiesByCursor}) never carry totals.
+     */
+    Mono<CustomPage<CapacityList>> listCapabilities(OrderList order, ItemSortList item, Integer page, Integer size, TotalsMode totals);
+    Mono<CursorPage<CapacityList>> listCapabilitiesByCursor(OrderList order, ItemSortList item, String cursor, Integer size);
+    Mono<CursorPage<CapacityList>> searchCapabilities(String text, String cursor, Integer size);
     Mono<Void> assignCapabilitiesToBootcamp(Long bootcampId, List<Long> capabilitiesIds);
     Flux<CapabilitiesPerBootcamp> getCapabilitiesByBootcampsIds(List<Long> bootcampIds);
-    Mono<CustomPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcamps(OrderList order, Integer size, Integer page);
+    Flux<CapabilitiesPerBootcamp> streamCapabilitiesByBootcampsIds(List<Long> bootcampIds);
+    /**
+     * Pages bootcamps by their capabilities count. {@code totals} decides how the total is computed;
+     * cursor pages ({@link #getSortCapabilitiesByBootcampsByCursor}) never carry totals.
+     */
+    Mono<CustomPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcamps(OrderList order, Integer size, Integer page, TotalsMode totals);
+    Mono<CursorPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcampsByCursor(OrderList order, String cursor, Integer size);
     Mono<Void> deleteCapabilitiesByBootcampId(Long bootcampId);
 
+    /**
+     * Bootcamps whose stored capabilities counter differs from their assignations, at most
+     * {@code BOOTCAMP_COUNTERS_DRIFT_SAMPLE_SIZE} of them.
+     */
+    Flux<BootcampCountDrift> findBootcampCountersDrift();
+
+    /**
+     * Recomputes every stored capabilities counter from the assignations and answers the rows it changed.
+     */
+    Mono<Integer> rebuildBootcampCounters();
+
 }
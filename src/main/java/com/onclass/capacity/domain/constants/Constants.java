@@ -7,4 +7,19 @@ public class Constants {
     public static final Integer CAPACITY_MIN_TECHNOLOGIES_SIZE = 3;
     public static final Integer CAPACITY_MAX_CAPABILITIES_SIZE = 20;
     public static final Integer MIN_TOTAL_PAGE = 1;
+    public static final Integer STREAM_CAPABILITIES_WINDOW_SIZE = 500;
+    public static final Integer TOTALS_CACHE_TTL_SECONDS = 30;
+    public static final int BOOTCAMP_COUNTERS_DRIFT_SAMPLE_SIZE = 100;
+    public static final Integer BULK_REGISTRATION_BATCH_SIZE = 500;
+    public static final Integer SEARCH_TEXT_MIN_SIZE = 3;
+    public static final Integer OUTBOX_BATCH_SIZE = 100;
+    public static final Integer OUTBOX_SEND_CONCURRENCY = 8;
+    public static final Integer OUTBOX_MAX_ATTEMPTS = 10;
+    public static final Integer OUTBOX_POLL_INTERVAL_MILLIS = 500;
+    public static final Integer OUTBOX_LEASE_SECONDS = 60;
+    public static final Integer OUTBOX_BACKOFF_BASE_SECONDS = 1;
+    public static final Integer OUTBOX_BACKOFF_MAX_SECONDS = 300;
+    public static final String OUTBOX_RELAY_ERROR = "Technology outbox relay poll failed - [ERROR] {}";
+    public static final String OUTBOX_COMPENSATED_CAPACITY = "Deleted capacity {} after its technology assignment {} failed";
+    public static final String OUTBOX_COMPENSATION_FAILED = "Could not delete capacity {} after its technology assignment {} failed - [ERROR] {}";
 }
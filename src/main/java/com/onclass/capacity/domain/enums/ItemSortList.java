@@ -1,5 +1,6 @@
 package com.onclass.capacity.domain.enums;
 
+import com.onclass.capacity.domain.exceptions.InvalidFormatParamException;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -16,11 +17,11 @@ public enum ItemSortList {
 
     public static ItemSortList fromString(String value) {
         if (value == null) {
-            throw new IllegalArgumentException("El valor no puede ser nulo.");
+            throw new InvalidFormatParamException(TechnicalMessage.INVALID_PARAMETERS);
         }
         return Arrays.stream(ItemSortList.values())
                      .filter(item -> item.getMessage().equalsIgnoreCase(value))
                      .findFirst()
-                     .orElseThrow(() -> new IllegalArgumentException("Valor desconocido: " + value));
+                     .orElseThrow(() -> new InvalidFormatParamException(TechnicalMessage.INVALID_PARAMETERS));
     }
 }
\ No newline at end of file
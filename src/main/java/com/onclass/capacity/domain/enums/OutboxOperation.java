@@ -0,0 +1,6 @@
+package com.onclass.capacity.domain.enums;
+
+public enum OutboxOperation {
+    ASSIGN_TECHNOLOGIES,
+    DELETE_TECHNOLOGIES
+}
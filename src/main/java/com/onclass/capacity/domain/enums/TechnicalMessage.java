@@ -24,7 +24,12 @@ public enum TechnicalMessage {
     LIST_TECHNOLOGIES_IS_TOO_LONG("404","List of the technologies exceeds the allowed limit" ,"" ),
     ERROR_CREATING_CAPACITY("500","An error occurred while creating the capacity" ,"" ),
     CAPABILITIES_ASSIGN_OK("200", "Capabilities assigned successful", ""),
-    DELETE_CAPABILITIES_OK("200", "Capabilities by bootcamp id deleted successful", "");
+    DELETE_CAPABILITIES_OK("200", "Capabilities by bootcamp id deleted successful", ""),
+    INVALID_CURSOR("400", "The pagination cursor is invalid, please verify data", "cursor"),
+    CURSOR_NOT_SUPPORTED("400", "Cursor pagination is not supported for this sort parameter", "cursor"),
+    DEPENDENCY_OVERLOADED("503", "A downstream service is busy, please try again later", ""),
+    SEARCH_TEXT_TOO_SHORT("400", "The search text must contain at least 3 characters", "q"),
+    INVALID_TOTALS_MODE("400", "The totals parameter must be one of exact, approx or none", "totals");
 
     private final String code;
     private final String message;
@@ -0,0 +1,28 @@
+package com.onclass.capacity.domain.enums;
+
+import com.onclass.capacity.domain.exceptions.InvalidFormatParamException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+@RequiredArgsConstructor
+@Getter
+public enum TotalsMode {
+
+    EXACT("exact"),
+    APPROXIMATE("approx"),
+    NONE("none");
+
+    private final String message;
+
+    public static TotalsMode fromString(String value) {
+        if (value == null) {
+            throw new InvalidFormatParamException(TechnicalMessage.INVALID_TOTALS_MODE);
+        }
+        return Arrays.stream(TotalsMode.values())
+                     .filter(item -> item.getMessage().equalsIgnoreCase(value))
+                     .findFirst()
+                     .orElseThrow(() -> new InvalidFormatParamException(TechnicalMessage.INVALID_TOTALS_MODE));
+    }
+}
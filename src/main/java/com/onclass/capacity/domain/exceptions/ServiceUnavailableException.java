@@ -0,0 +1,21 @@
+package com.onclass.capacity.domain.exceptions;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Raised when a call is shed before reaching a downstream service; {@code retryAfter} is how long
+ * the client should wait before trying again.
+ */
+@Getter
+public class ServiceUnavailableException extends TechnicalException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(TechnicalMessage technicalMessage, Duration retryAfter) {
+        super(technicalMessage);
+        this.retryAfter = retryAfter;
+    }
+}
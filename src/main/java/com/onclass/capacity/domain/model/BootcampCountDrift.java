@@ -0,0 +1,8 @@
+package com.onclass.capacity.domain.model;
+
+public record BootcampCountDrift(
+        Long bootcampId,
+        Long expectedCount,
+        Long storedCount
+    ) {
+}
@@ -0,0 +1,23 @@
+package com.onclass.capacity.domain.model;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+
+public record CapacityRegistrationResult(
+        long index,
+        String name,
+        Long id,
+        TechnicalMessage result
+    ) {
+
+    public static CapacityRegistrationResult created(long index, Capacity capacity) {
+        return new CapacityRegistrationResult(index, capacity.name(), capacity.id(), TechnicalMessage.CAPACITY_CREATED);
+    }
+
+    public static CapacityRegistrationResult rejected(long index, Capacity capacity, TechnicalMessage reason) {
+        return new CapacityRegistrationResult(index, capacity.name(), null, reason);
+    }
+
+    public boolean isCreated() {
+        return result == TechnicalMessage.CAPACITY_CREATED;
+    }
+}
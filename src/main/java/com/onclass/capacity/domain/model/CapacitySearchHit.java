@@ -0,0 +1,7 @@
+package com.onclass.capacity.domain.model;
+
+public record CapacitySearchHit(
+        Capacity capacity,
+        Float score
+    ) {
+}
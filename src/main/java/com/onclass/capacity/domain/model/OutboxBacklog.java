@@ -0,0 +1,12 @@
+package com.onclass.capacity.domain.model;
+
+import java.time.Instant;
+
+public record OutboxBacklog(
+        long pending,
+        long failed,
+        Instant oldestPendingAt
+    ) {
+
+    public static final OutboxBacklog EMPTY = new OutboxBacklog(0, 0, null);
+}
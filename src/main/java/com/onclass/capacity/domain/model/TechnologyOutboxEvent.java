@@ -0,0 +1,28 @@
+package com.onclass.capacity.domain.model;
+
+import com.onclass.capacity.domain.enums.OutboxOperation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record TechnologyOutboxEvent(
+        Long id,
+        OutboxOperation operation,
+        String idempotencyKey,
+        Long capacityId,
+        List<Long> ids,
+        int attempts,
+        Instant createdAt
+    ) {
+
+    public static TechnologyOutboxEvent assignTechnologies(Long capacityId, List<Long> technologiesIds) {
+        return new TechnologyOutboxEvent(null, OutboxOperation.ASSIGN_TECHNOLOGIES, UUID.randomUUID().toString(),
+            capacityId, technologiesIds, 0, null);
+    }
+
+    public static TechnologyOutboxEvent deleteTechnologies(List<Long> capabilitiesIds) {
+        return new TechnologyOutboxEvent(null, OutboxOperation.DELETE_TECHNOLOGIES, UUID.randomUUID().toString(),
+            null, capabilitiesIds, 0, null);
+    }
+}
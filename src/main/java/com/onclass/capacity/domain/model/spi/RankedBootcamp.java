@@ -0,0 +1,10 @@
+package com.onclass.capacity.domain.model.spi;
+
+import java.util.List;
+
+public record RankedBootcamp(
+        Long id,
+        Long capabilitiesCount,
+        List<CapacityBasicItem> capabilities
+    ) {
+}
@@ -0,0 +1,9 @@
+package com.onclass.capacity.domain.model.spi;
+
+import java.util.List;
+
+public record RankedBootcampPage(
+        List<RankedBootcamp> bootcamps,
+        Long totalBootcamps
+    ) {
+}
@@ -1,24 +1,38 @@
 package com.onclass.capacity.domain.spi;
 
 import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
+import com.onclass.capacity.domain.model.spi.RankedBootcamp;
+import com.onclass.capacity.domain.model.spi.RankedBootcampPage;
+import com.onclass.capacity.domain.model.BootcampCountDrift;
 import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.CapacitySearchHit;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 public interface CapacityPersistencePort {
-    Mono<Capacity> upsert(Capacity capacity);
-    Mono<Capacity> findByName(String nameCapacity);
+    Mono<Capacity> insertIfAbsent(Capacity capacity);
+    Flux<String> findExistingNames(List<String> names);
+    Flux<Capacity> insertAll(List<Capacity> capabilities);
     Flux<Capacity> findPaginatedAndSortByName(String order, Integer size, Integer page);
+    Flux<Capacity> findSortByNameAfter(String order, Integer size, String lastName, Long lastId);
+    Flux<CapacitySearchHit> searchByText(String text, Integer size, Float lastScore, Long lastId);
     Flux<Capacity> findAllByIds(List<Long> capabilitiesIds);
+    Mono<Long> countExistingCapabilities(List<Long> capabilitiesIds);
     Mono<Long> countCapabilities();
+    Mono<Long> estimateCapabilities();
     Mono<Void> assignCapabilitiesToBootcamp(Long bootcampId, List<Long> capacityIds);
     Flux<CapabilitiesBasicPerBootcamp> findCapabilitiesByBootcampsIds(List<Long> bootcampsIds);
-    Flux<CapabilitiesBasicPerBootcamp> findPaginatedAndSortByBootcampNumber(String order, Integer size, Integer page);
+    Flux<CapabilitiesBasicPerBootcamp> streamCapabilitiesByBootcampsIds(List<Long> bootcampsIds);
+    Mono<RankedBootcampPage> findPaginatedAndSortByBootcampNumber(String order, Integer size, Integer page, boolean withTotal);
+    Flux<RankedBootcamp> findSortByBootcampNumberAfter(String order, Integer size, Long lastCount, Long lastBootcampId);
     Mono<Long> countCapabilitiesPerBootcamps();
-    Flux<Capacity> findCapabilitiesByBootcampId(Long bootcampId);
+    Mono<Long> estimateCapabilitiesPerBootcamps();
     Mono<Void> deleteAllCapabilities(List<Long> capabilitiesIds);
+    Mono<Void> deleteCapabilitiesAndAssignations(List<Long> capabilitiesIds);
     Mono<Void> deleteAllAssignations(Long bootcampId);
-    Mono<Boolean> verifyOtherAssignations(Long capacityId, Long bootcampId);
+    Flux<Long> findExclusiveCapabilitiesIds(Long bootcampId);
+    Flux<BootcampCountDrift> findCapabilitiesCountDrift(int limit);
+    Mono<Integer> rebuildCapabilitiesCount();
 }
@@ -8,8 +8,9 @@ import reactor.core.publisher.Mono;
 import java.util.List;
 
 public interface TechnologiesGateway {
-    Mono<ResponseDTO> assignTechnologiesToCapacity(Long capacityId, List<Long> technologiesIds);
+    Mono<ResponseDTO> assignTechnologiesToCapacity(Long capacityId, List<Long> technologiesIds, String idempotencyKey);
     Mono<List<CapacityTechnologies>> getTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds);
     Mono<CustomPage<CapacityTechnologies>> getSortTechnologiesByCapabilities(String order, Integer size, Integer page);
-    Mono<Void> deleteTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds);
+    Mono<Void> deleteTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds, String idempotencyKey);
+    Mono<Void> evictTechnologies(List<Long> capabilitiesIds);
 }
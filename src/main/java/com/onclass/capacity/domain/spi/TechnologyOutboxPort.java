@@ -0,0 +1,18 @@
+package com.onclass.capacity.domain.spi;
+
+import com.onclass.capacity.domain.model.OutboxBacklog;
+import com.onclass.capacity.domain.model.TechnologyOutboxEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface TechnologyOutboxPort {
+    Mono<Void> enqueue(TechnologyOutboxEvent event);
+    Mono<Void> enqueueAll(List<TechnologyOutboxEvent> events);
+    Flux<TechnologyOutboxEvent> claimPending(Integer limit, Duration lease);
+    Mono<Void> markSent(Long id);
+    Mono<Void> markFailed(Long id, Integer attempts, Duration backoff, boolean exhausted, String error);
+    Mono<OutboxBacklog> backlog();
+}
@@ -1,78 +1,171 @@
 package com.onclass.capacity.domain.usecase;
 
 import com.onclass.capacity.domain.api.CapacityServicePort;
+import com.onclass.capacity.domain.constants.Constants;
 import com.onclass.capacity.domain.enums.ItemSortList;
 import com.onclass.capacity.domain.enums.OrderList;
 import com.onclass.capacity.domain.enums.TechnicalMessage;
-import com.onclass.capacity.domain.exceptions.EntityAlreadyExistException;
+import com.onclass.capacity.domain.enums.TotalsMode;
 import com.onclass.capacity.domain.exceptions.EntityNotFoundException;
 import com.onclass.capacity.domain.exceptions.InvalidFormatParamException;
 import com.onclass.capacity.domain.exceptions.ParamRequiredMissingException;
+import com.onclass.capacity.domain.exceptions.ProcessorException;
 import com.onclass.capacity.domain.model.*;
 import com.onclass.capacity.domain.model.spi.*;
 import com.onclass.capacity.domain.spi.CapacityPersistencePort;
 import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
+import com.onclass.capacity.domain.utilities.CapacityTechnologiesIndex;
+import com.onclass.capacity.domain.utilities.CursorPage;
+import com.onclass.capacity.domain.utilities.CursorToken;
 import com.onclass.capacity.domain.utilities.CustomPage;
+import com.onclass.capacity.domain.utilities.TotalsProvider;
 import com.onclass.capacity.domain.validators.Validator;
-import lombok.AllArgsConstructor;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-@AllArgsConstructor
 public class CapacityUseCase implements CapacityServicePort {
 
     private final CapacityPersistencePort capacityPersistencePort;
     private final TechnologiesGateway technologiesGateway;
+    private final TechnologyOutboxPort technologyOutboxPort;
     private final TransactionalOperator transactionalOperator;
+    private final TotalsProvider capabilitiesTotals;
+    private final TotalsProvider bootcampsTotals;
+
+    public CapacityUseCase(CapacityPersistencePort capacityPersistencePort, TechnologiesGateway technologiesGateway,
+                           TechnologyOutboxPort technologyOutboxPort, TransactionalOperator transactionalOperator) {
+        this.capacityPersistencePort = capacityPersistencePort;
+        this.technologiesGateway = technologiesGateway;
+        this.technologyOutboxPort = technologyOutboxPort;
+        this.transactionalOperator = transactionalOperator;
+        Duration totalsTtl = Duration.ofSeconds(Constants.TOTALS_CACHE_TTL_SECONDS);
+        this.capabilitiesTotals = new TotalsProvider(
+            capacityPersistencePort::countCapabilities, capacityPersistencePort::estimateCapabilities, totalsTtl);
+        this.bootcampsTotals = new TotalsProvider(
+            capacityPersistencePort::countCapabilitiesPerBootcamps, capacityPersistencePort::estimateCapabilitiesPerBootcamps, totalsTtl);
+    }
 
     @Override
     public Mono<Capacity> registerCapacity(Capacity capacity) {
         return transactionalOperator.transactional(
             Validator.validateCapacity(capacity)
-            .then( capacityPersistencePort.findByName(capacity.name()))
-            .flatMap(capacityFound -> Mono.error(new EntityAlreadyExistException(TechnicalMessage.CAPACITY_ALREADY_EXISTS)))
-            .switchIfEmpty(
-                Mono.defer(()->
-                    capacityPersistencePort.upsert(capacity)
-                    .flatMap(capacitySaved ->
-                        technologiesGateway.assignTechnologiesToCapacity(capacitySaved.id(), capacity.technologies())
-                        .then(Mono.just(capacitySaved))
-                    )
-                )
-            ).cast(Capacity.class)
-        );
+            .then( capacityPersistencePort.insertIfAbsent(capacity))
+            .flatMap(capacitySaved ->
+                technologyOutboxPort.enqueue(TechnologyOutboxEvent.assignTechnologies(capacitySaved.id(), capacity.technologies()))
+                .then(Mono.just(capacitySaved))
+            )
+        )
+        .flatMap(capacitySaved -> technologiesGateway.evictTechnologies(List.of(capacitySaved.id())).thenReturn(capacitySaved))
+        .doOnSuccess(capacitySaved -> capabilitiesTotals.invalidate());
+    }
+
+    /**
+     * Registers capabilities in batches: a batch is validated in one pass, checked against existing
+     * names (case-insensitively) with one query, then inserted with one statement in the same transaction
+     * that writes their technology assignments to the outbox. A name taken by a concurrent insert in the
+     * meantime is reported as rejected; technology assignments are delivered (or compensated) by the
+     * {@link TechnologyOutboxRelay} like those of {@link #registerCapacity(Capacity)}, and the cached
+     * technologies of the inserted capabilities are evicted once their batch commits.
+     */
+    @Override
+    public Flux<CapacityRegistrationResult> registerCapabilities(Flux<Capacity> capabilities) {
+        return capabilities.index()
+            .buffer(Constants.BULK_REGISTRATION_BATCH_SIZE)
+            .concatMap(this::insertRegistrationBatch)
+            .concatMapIterable(this::registrationResults)
+            .doFinally(signal -> capabilitiesTotals.invalidate());
+    }
+
+    @Override
+    public Mono<CustomPage<CapacityList>> listCapabilities(OrderList order, ItemSortList item, Integer page, Integer size, TotalsMode totals) {
+        return switch (item){
+            case CAPABILITIES -> listCapabilitiesSortByTechnologies(order, page, size, totals);
+            case NAME -> listCapabilitiesSortByName(order, page, size, totals);
+        };
     }
 
     @Override
-    public Mono<CustomPage<CapacityList>> listCapabilities(OrderList order, ItemSortList item, Integer page, Integer size) {
+    public Mono<CursorPage<CapacityList>> listCapabilitiesByCursor(OrderList order, ItemSortList item, String cursor, Integer size) {
         return switch (item){
-            case CAPABILITIES -> listCapabilitiesSortByTechnologies(order, page, size);
-            case NAME -> listCapabilitiesSortByName(order, page, size);
+            case CAPABILITIES -> Mono.error(new InvalidFormatParamException(TechnicalMessage.CURSOR_NOT_SUPPORTED));
+            case NAME -> listCapabilitiesSortByNameAfter(order, cursor, size);
         };
     }
 
+    /**
+     * Ranked full-text search over names and descriptions, paginated with a cursor over
+     * (score, id) so pages stay stable while the ranking is computed by the database. The
+     * ranking is recomputed for every page over a bounded number of matches, so later pages
+     * are not cheaper than the first one, only no more expensive.
+     */
+    @Override
+    public Mono<CursorPage<CapacityList>> searchCapabilities(String text, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            String searchText = Optional.ofNullable(text).map(String::trim).orElse("");
+            if (searchText.length() < Constants.SEARCH_TEXT_MIN_SIZE) {
+                return Mono.error(new InvalidFormatParamException(TechnicalMessage.SEARCH_TEXT_TOO_SHORT));
+            }
+            List<String> position = CursorToken.decode(cursor, 2);
+            Float lastScore = position.isEmpty()? null : CursorToken.floatValue(position.get(0));
+            Long lastId = position.isEmpty()? null : CursorToken.longValue(position.get(1));
+            return capacityPersistencePort.searchByText(searchText, size + 1, lastScore, lastId)
+                .collectList();
+        }).flatMap( hits -> {
+            List<CapacitySearchHit> pageHits = hits.size() > size ? hits.subList(0, size) : hits;
+            String nextCursor = null;
+            if (hits.size() > size) {
+                CapacitySearchHit lastHit = pageHits.get(pageHits.size() - 1);
+                nextCursor = CursorToken.encode(lastHit.score(), lastHit.capacity().id());
+            }
+            String pageCursor = nextCursor;
+            if (pageHits.isEmpty()) {
+                return Mono.just(CursorPage.buildCursorPage(Collections.checkedList(List.of(),CapacityList.class), pageCursor, size));
+            }
+            List<Long> listIds = pageHits.stream().map(hit -> hit.capacity().id()).toList();
+            return technologiesGateway.getTechnologiesByCapabilitiesIds(listIds)
+                .map(CapacityTechnologiesIndex::of)
+                .map( technologiesIndex ->
+                    CursorPage.buildCursorPage(
+                        pageHits.stream()
+                            .map( hit -> enrichCapacityInfo(hit.capacity(), technologiesIndex))
+                            .toList(),
+                        pageCursor,
+                        size)
+                );
+        });
+    }
+
     @Override
     public Mono<Void> assignCapabilitiesToBootcamp(Long bootcampId, List<Long> capabilitiesIds) {
         if (capabilitiesIds == null || capabilitiesIds.isEmpty()) {
             return Mono.error(new ParamRequiredMissingException(TechnicalMessage.MISSING_REQUIRED_PARAM));
         }
         return transactionalOperator.transactional(
-            capacityPersistencePort.findAllByIds(capabilitiesIds)
-            .collectList()
-            .flatMap(capabilitiesList ->{
-                if(capabilitiesList.size() == capabilitiesIds.size()){
+            capacityPersistencePort.countExistingCapabilities(capabilitiesIds)
+            .flatMap(existingCount ->{
+                if(existingCount == capabilitiesIds.size()){
                     return capacityPersistencePort.assignCapabilitiesToBootcamp(bootcampId, capabilitiesIds);
                 }else{
                     return Mono.error(new EntityNotFoundException(TechnicalMessage.SOME_CAPABILITIES_NOT_FOUND));
                 }
             })
-        );
+        ).doOnSuccess(assigned -> bootcampsTotals.invalidate());
     }
 
     @Override
@@ -93,20 +186,78 @@ public class CapacityUseCase implements CapacityServicePort {
                     .distinct()
                     .toList();
                 return technologiesGateway.getTechnologiesByCapabilitiesIds(listIds)
-                    .flatMapMany( capabilitiesTechnologies ->
+                    .map(CapacityTechnologiesIndex::of)
+                    .flatMapMany( technologiesIndex ->
                         Flux.fromStream(listCapabilities.stream()
-                            .map( bootcamp -> enrichBootcampInfo(bootcamp, capabilitiesTechnologies))
+                            .map( bootcamp -> enrichBootcampInfo(bootcamp, technologiesIndex))
                         )
                     );
                 }
             );
     }
 
+    /**
+     * Enriches bootcamps in windows of about {@code STREAM_CAPABILITIES_WINDOW_SIZE} capability rows, so
+     * memory and the size of each technology-mngr request stay bounded whatever the bootcamps hold. A
+     * bootcamp larger than a window gets a window of its own, whose ids are requested in chunks.
+     */
     @Override
-    public Mono<CustomPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcamps(OrderList order, Integer size, Integer page) {
-        return capacityPersistencePort.findPaginatedAndSortByBootcampNumber(order.getMessage(), size, page)
-            .collectList()
-            .flatMap( listCapabilities -> {
+    public Flux<CapabilitiesPerBootcamp> streamCapabilitiesByBootcampsIds(List<Long> bootcampIds) {
+        if (bootcampIds.isEmpty()) {
+            return Flux.error(new ParamRequiredMissingException(TechnicalMessage.MISSING_REQUIRED_PARAM));
+        }
+        return Flux.defer(() -> {
+            AtomicInteger windowRows = new AtomicInteger();
+            return capacityPersistencePort.streamCapabilitiesByBootcampsIds(bootcampIds)
+                .bufferUntil(bootcamp -> startsNewWindow(windowRows, bootcamp.capabilities().size()), true);
+        }).concatMap( bootcampsWindow -> {
+                List<Long> listIds = bootcampsWindow.stream()
+                    .flatMap(bootcampInfo -> bootcampInfo.capabilities().stream())
+                    .map(CapacityBasicItem::id)
+                    .distinct()
+                    .toList();
+                return Flux.fromIterable(listIds)
+                    .buffer(Constants.STREAM_CAPABILITIES_WINDOW_SIZE)
+                    .concatMap(technologiesGateway::getTechnologiesByCapabilitiesIds)
+                    .concatMapIterable(Function.identity())
+                    .collectList()
+                    .map(CapacityTechnologiesIndex::of)
+                    .flatMapIterable( technologiesIndex ->
+                        bootcampsWindow.stream()
+                        .map( bootcamp -> enrichBootcampInfo(bootcamp, technologiesIndex))
+                        .toList()
+                    );
+                }, 1
+            );
+    }
+
+    private boolean startsNewWindow(AtomicInteger windowRows, int bootcampRows) {
+        int rows = windowRows.addAndGet(bootcampRows);
+        if (rows == bootcampRows || rows <= Constants.STREAM_CAPABILITIES_WINDOW_SIZE) {
+            return false;
+        }
+        windowRows.set(bootcampRows);
+        return true;
+    }
+
+    /**
+     * Loads the ranking page and, when an exact total is asked for and none is cached, its total in the
+     * same statement; the total is handed to the totals cache so the page reads it from there. Past the
+     * last page no row carries the total, so it falls back to a separate count.
+     */
+    @Override
+    public Mono<CustomPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcamps(OrderList order, Integer size, Integer page, TotalsMode totals) {
+        return Mono.defer(() -> {
+            long totalsGeneration = bootcampsTotals.generation();
+            return capacityPersistencePort.findPaginatedAndSortByBootcampNumber(
+                    order.getMessage(), size, page, bootcampsTotals.needsExactTotal(totals))
+                .doOnNext(rankedPage -> {
+                    if (rankedPage.totalBootcamps() != null) {
+                        bootcampsTotals.offer(rankedPage.totalBootcamps(), totalsGeneration);
+                    }
+                });
+        }).flatMap( rankedPage -> {
+                List<RankedBootcamp> listCapabilities = rankedPage.bootcamps();
                 if (listCapabilities.isEmpty()) {
                     return Mono.just(Collections.checkedList(List.of(),CapabilitiesPerBootcamp.class));
                 }
@@ -116,29 +267,62 @@ public class CapacityUseCase implements CapacityServicePort {
                     .distinct()
                     .toList();
                 return technologiesGateway.getTechnologiesByCapabilitiesIds(listIds)
-                    .map( capabilitiesTechnologies ->
+                    .map(CapacityTechnologiesIndex::of)
+                    .map( technologiesIndex ->
                         listCapabilities.stream()
-                        .map( bootcampCapabilities -> enrichBootcampInfo(bootcampCapabilities, capabilitiesTechnologies))
+                        .map( bootcampCapabilities -> enrichBootcampInfo(bootcampCapabilities, technologiesIndex))
                         .toList()
                     );
                 }
-            ).zipWith(capacityPersistencePort.countCapabilitiesPerBootcamps())
-            .map(tuple ->
-	            CustomPage.buildCustomPage(tuple.getT1(), page, size, tuple.getT2())
+            ).flatMap(listBootcamps -> totalItems(bootcampsTotals, totals)
+                .map(totalItems -> buildPage(listBootcamps, page, size, totalItems))
             );
     }
 
+    @Override
+    public Mono<CursorPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcampsByCursor(OrderList order, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            List<String> position = CursorToken.decode(cursor, 2);
+            Long lastCount = position.isEmpty()? null : CursorToken.longValue(position.get(0));
+            Long lastBootcampId = position.isEmpty()? null : CursorToken.longValue(position.get(1));
+            return capacityPersistencePort.findSortByBootcampNumberAfter(order.getMessage(), size + 1, lastCount, lastBootcampId)
+                .collectList();
+        }).flatMap( listCapabilities -> {
+            List<RankedBootcamp> pageCapabilities = listCapabilities.size() > size ? listCapabilities.subList(0, size) : listCapabilities;
+            String nextCursor = null;
+            if (listCapabilities.size() > size) {
+                RankedBootcamp lastBootcamp = pageCapabilities.get(pageCapabilities.size() - 1);
+                nextCursor = CursorToken.encode(lastBootcamp.capabilitiesCount(), lastBootcamp.id());
+            }
+            String pageCursor = nextCursor;
+            if (pageCapabilities.isEmpty()) {
+                return Mono.just(CursorPage.buildCursorPage(Collections.checkedList(List.of(),CapabilitiesPerBootcamp.class), pageCursor, size));
+            }
+            List<Long> listIds = pageCapabilities.stream()
+                .flatMap(bootcampInfo -> bootcampInfo.capabilities().stream())
+                .map(CapacityBasicItem::id)
+                .distinct()
+                .toList();
+            return technologiesGateway.getTechnologiesByCapabilitiesIds(listIds)
+                .map(CapacityTechnologiesIndex::of)
+                .map( technologiesIndex ->
+                    CursorPage.buildCursorPage(
+                        pageCapabilities.stream()
+                            .map( bootcampCapabilities -> enrichBootcampInfo(bootcampCapabilities, technologiesIndex))
+                            .toList(),
+                        pageCursor,
+                        size)
+                );
+        });
+    }
+
     @Override
     public Mono<Void> deleteCapabilitiesByBootcampId(Long bootcampId) {
         return transactionalOperator.transactional(
             Validator.validationCondition(bootcampId != null, new InvalidFormatParamException(TechnicalMessage.INVALID_PARAMETERS))
             .then(
-                capacityPersistencePort.findCapabilitiesByBootcampId(bootcampId)
-                .flatMap( capacity ->
-                    capacityPersistencePort.verifyOtherAssignations(capacity.id(), bootcampId)
-                    .filter(haveOtherAssign -> !haveOtherAssign)
-                    .map(valid -> capacity.id())
-                ).collectList()
+                capacityPersistencePort.findExclusiveCapabilitiesIds(bootcampId)
+                .collectList()
                 .flatMap( listCapabilitiesIds ->{
                     if (listCapabilitiesIds.isEmpty()) {
                         return Mono.empty();
@@ -146,29 +330,138 @@ public class CapacityUseCase implements CapacityServicePort {
                     return capacityPersistencePort.deleteAllCapabilities(listCapabilitiesIds)
                         .then(
                             capacityPersistencePort.deleteAllAssignations(bootcampId)
-                            .then( technologiesGateway.deleteTechnologiesByCapabilitiesIds(listCapabilitiesIds))
-                        );
+                            .then( technologyOutboxPort.enqueue(TechnologyOutboxEvent.deleteTechnologies(listCapabilitiesIds)))
+                        )
+                        .thenReturn(listCapabilitiesIds);
                 })
             )
-        );
+        )
+        .flatMap(technologiesGateway::evictTechnologies)
+        .doOnSuccess(deleted -> {
+            capabilitiesTotals.invalidate();
+            bootcampsTotals.invalidate();
+        });
+    }
+
+    @Override
+    public Flux<BootcampCountDrift> findBootcampCountersDrift() {
+        return capacityPersistencePort.findCapabilitiesCountDrift(Constants.BOOTCAMP_COUNTERS_DRIFT_SAMPLE_SIZE);
+    }
+
+    @Override
+    public Mono<Integer> rebuildBootcampCounters() {
+        return transactionalOperator.transactional(capacityPersistencePort.rebuildCapabilitiesCount())
+            .doOnSuccess(rebuiltRows -> bootcampsTotals.invalidate());
+    }
+
+    private Mono<RegistrationBatch> insertRegistrationBatch(List<Tuple2<Long, Capacity>> batch) {
+        return Flux.fromIterable(batch)
+            .concatMap(item -> Validator.validateCapacity(item.getT2())
+                .map(capacity -> new RegistrationItem(item.getT1(), capacity, null))
+                .onErrorResume(ProcessorException.class, ex ->
+                    Mono.just(new RegistrationItem(item.getT1(), item.getT2(), ex.getTechnicalMessage())))
+            )
+            .collectList()
+            .flatMap(validatedItems -> {
+                Set<String> batchNames = new HashSet<>();
+                List<RegistrationItem> items = validatedItems.stream()
+                    .map(item -> item.accepted() && !batchNames.add(normalizedName(item.capacity()))
+                        ? item.reject(TechnicalMessage.CAPACITY_ALREADY_EXISTS)
+                        : item)
+                    .toList();
+                if (batchNames.isEmpty()) {
+                    return Mono.just(new RegistrationBatch(items, Map.of()));
+                }
+                return capacityPersistencePort.findExistingNames(List.copyOf(batchNames))
+                    .collect(Collectors.toSet())
+                    .flatMap(existingNames -> {
+                        List<RegistrationItem> screenedItems = items.stream()
+                            .map(item -> item.accepted() && existingNames.contains(normalizedName(item.capacity()))
+                                ? item.reject(TechnicalMessage.CAPACITY_ALREADY_EXISTS)
+                                : item)
+                            .toList();
+                        List<Capacity> newCapabilities = screenedItems.stream()
+                            .filter(RegistrationItem::accepted)
+                            .map(RegistrationItem::capacity)
+                            .toList();
+                        if (newCapabilities.isEmpty()) {
+                            return Mono.just(new RegistrationBatch(screenedItems, Map.of()));
+                        }
+                        return transactionalOperator.transactional(
+                                capacityPersistencePort.insertAll(newCapabilities)
+                                    .collectList()
+                                    .flatMap(insertedCapabilities -> enqueueTechnologies(insertedCapabilities, newCapabilities)
+                                        .thenReturn(insertedCapabilities.stream()
+                                            .collect(Collectors.toMap(Capacity::name, Capacity::id))))
+                            )
+                            .flatMap(insertedIds -> technologiesGateway.evictTechnologies(List.copyOf(insertedIds.values()))
+                                .thenReturn(insertedIds))
+                            .map(insertedIds -> new RegistrationBatch(
+                                screenedItems.stream()
+                                    .map(item -> item.accepted() && !insertedIds.containsKey(item.capacity().name())
+                                        ? item.reject(TechnicalMessage.CAPACITY_ALREADY_EXISTS)
+                                        : item)
+                                    .toList(),
+                                insertedIds));
+                    });
+            });
+    }
+
+    private Mono<Void> enqueueTechnologies(List<Capacity> insertedCapabilities, List<Capacity> newCapabilities) {
+        if (insertedCapabilities.isEmpty()) {
+            return Mono.empty();
+        }
+        Map<String, List<Long>> technologiesByName = newCapabilities.stream()
+            .collect(Collectors.toMap(Capacity::name, Capacity::technologies, (first, second) -> first));
+        return technologyOutboxPort.enqueueAll(insertedCapabilities.stream()
+            .map(capacitySaved -> TechnologyOutboxEvent.assignTechnologies(
+                capacitySaved.id(), technologiesByName.get(capacitySaved.name())))
+            .toList());
+    }
+
+    private List<CapacityRegistrationResult> registrationResults(RegistrationBatch batch) {
+        return batch.items().stream()
+            .map(item -> {
+                if (!item.accepted()) {
+                    return CapacityRegistrationResult.rejected(item.index(), item.capacity(), item.rejection());
+                }
+                Capacity capacity = item.capacity();
+                return CapacityRegistrationResult.created(item.index(), new Capacity(
+                    batch.insertedIds().get(capacity.name()), capacity.name(), capacity.description(), capacity.technologies()));
+            })
+            .toList();
     }
 
-    private Mono<CustomPage<CapacityList>> listCapabilitiesSortByTechnologies(OrderList order, Integer page, Integer size) {
+    private String normalizedName(Capacity capacity) {
+        return capacity.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The technology-mngr page already carries an exact total, which also answers {@link TotalsMode#APPROXIMATE};
+     * {@link TotalsMode#NONE} only drops it from the response.
+     */
+    private Mono<CustomPage<CapacityList>> listCapabilitiesSortByTechnologies(OrderList order, Integer page, Integer size, TotalsMode totals) {
         return technologiesGateway.getSortTechnologiesByCapabilities(order.getMessage(), size, page)
             .flatMap(pageCapabilities -> {
                 List<Long> listIds = pageCapabilities.getData().stream().map(CapacityTechnologies::id).toList();
+                CapacityTechnologiesIndex technologiesIndex = CapacityTechnologiesIndex.of(pageCapabilities.getData());
                 return capacityPersistencePort.findAllByIds(listIds)
-                    .map( capacity -> enrichCapacityInfo(capacity,pageCapabilities.getData()))
+                    .map( capacity -> enrichCapacityInfo(capacity, technologiesIndex))
                     .collectSortedList(
                         verifyOrder(order, Comparator.comparing(item -> item.technologies().size()))
                     )
-                    .map( listCapabilitiesComplete ->
-                        new CustomPage<CapacityList>(listCapabilitiesComplete, pageCapabilities)
-                    );
+                    .map( listCapabilitiesComplete -> {
+                        CustomPage<CapacityList> capabilitiesPage = new CustomPage<>(listCapabilitiesComplete, pageCapabilities);
+                        if (totals == TotalsMode.NONE) {
+                            capabilitiesPage.setTotalItems(null);
+                            capabilitiesPage.setTotalPages(null);
+                        }
+                        return capabilitiesPage;
+                    });
             });
     }
 
-    private Mono<CustomPage<CapacityList>> listCapabilitiesSortByName(OrderList order, Integer page, Integer size) {
+    private Mono<CustomPage<CapacityList>> listCapabilitiesSortByName(OrderList order, Integer page, Integer size, TotalsMode totals) {
         return capacityPersistencePort.findPaginatedAndSortByName(order.getMessage(), size, page)
             .collectList()
             .flatMap( listCapabilities -> {
@@ -177,44 +470,99 @@ public class CapacityUseCase implements CapacityServicePort {
                 }
                 List<Long> listIds = listCapabilities.stream().map(Capacity::id).toList();
                 return technologiesGateway.getTechnologiesByCapabilitiesIds(listIds)
-                    .map( capabilitiesTechnologies ->
+                    .map(CapacityTechnologiesIndex::of)
+                    .map( technologiesIndex ->
                         listCapabilities.stream()
-                        .map( capacity -> enrichCapacityInfo(capacity, capabilitiesTechnologies))
+                        .map( capacity -> enrichCapacityInfo(capacity, technologiesIndex))
                         .toList()
                     );
                 }
-            ).zipWith(capacityPersistencePort.countCapabilities())
+            ).zipWith(totalItems(capabilitiesTotals, totals))
             .map(tuple ->
-                CustomPage.buildCustomPage(tuple.getT1(), page, size, tuple.getT2())
+                buildPage(tuple.getT1(), page, size, tuple.getT2())
             );
     }
 
-    private CapacityList enrichCapacityInfo(Capacity capacityBasic, List<CapacityTechnologies> capacityTechnologies){
+    private Mono<CursorPage<CapacityList>> listCapabilitiesSortByNameAfter(OrderList order, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            List<String> position = CursorToken.decode(cursor, 2);
+            String lastName = position.isEmpty()? null : position.get(0);
+            Long lastId = position.isEmpty()? null : CursorToken.longValue(position.get(1));
+            return capacityPersistencePort.findSortByNameAfter(order.getMessage(), size + 1, lastName, lastId)
+                .collectList();
+        }).flatMap( listCapabilities -> {
+            List<Capacity> pageCapabilities = listCapabilities.size() > size ? listCapabilities.subList(0, size) : listCapabilities;
+            String nextCursor = null;
+            if (listCapabilities.size() > size) {
+                Capacity lastCapacity = pageCapabilities.get(pageCapabilities.size() - 1);
+                nextCursor = CursorToken.encode(lastCapacity.name(), lastCapacity.id());
+            }
+            String pageCursor = nextCursor;
+            if (pageCapabilities.isEmpty()) {
+                return Mono.just(CursorPage.buildCursorPage(Collections.checkedList(List.of(),CapacityList.class), pageCursor, size));
+            }
+            List<Long> listIds = pageCapabilities.stream().map(Capacity::id).toList();
+            return technologiesGateway.getTechnologiesByCapabilitiesIds(listIds)
+                .map(CapacityTechnologiesIndex::of)
+                .map( technologiesIndex ->
+                    CursorPage.buildCursorPage(
+                        pageCapabilities.stream()
+                            .map( capacity -> enrichCapacityInfo(capacity, technologiesIndex))
+                            .toList(),
+                        pageCursor,
+                        size)
+                );
+        });
+    }
+
+    private CapacityList enrichCapacityInfo(Capacity capacityBasic, CapacityTechnologiesIndex technologiesIndex){
         return new CapacityList(
                 capacityBasic.id(),
                 capacityBasic.name(),
-                findTechnologiesByCapacityID(capacityBasic.id(), capacityTechnologies));
+                technologiesIndex.technologiesOf(capacityBasic.id()));
     }
 
-    private CapabilitiesPerBootcamp enrichBootcampInfo(CapabilitiesBasicPerBootcamp bootcampPerCapacity, List<CapacityTechnologies> capacityTechnologies){
+    private CapabilitiesPerBootcamp enrichBootcampInfo(CapabilitiesBasicPerBootcamp bootcampPerCapacity, CapacityTechnologiesIndex technologiesIndex){
         List<CapacityItem> capacities = bootcampPerCapacity.capabilities()
                         .stream()
                         .map(capacityBasic ->
-                            new CapacityItem(capacityBasic.id(), capacityBasic.name(), findTechnologiesByCapacityID(capacityBasic.id(), capacityTechnologies) )
+                            new CapacityItem(capacityBasic.id(), capacityBasic.name(), technologiesIndex.technologiesOf(capacityBasic.id()) )
                         ).toList();
 
         return new CapabilitiesPerBootcamp(bootcampPerCapacity.id(),capacities);
     }
 
-    private List<TechnologyItem> findTechnologiesByCapacityID(Long capacityId, List<CapacityTechnologies> capacityTechnologies){
-        return capacityTechnologies.stream()
-                .filter(item -> Objects.equals(item.id(), capacityId))
-                .findFirst()
-                .map(CapacityTechnologies::technologies)
-                .orElse(Collections.checkedList(List.of(),TechnologyItem.class));
+    private CapabilitiesPerBootcamp enrichBootcampInfo(RankedBootcamp rankedBootcamp, CapacityTechnologiesIndex technologiesIndex){
+        return enrichBootcampInfo(new CapabilitiesBasicPerBootcamp(rankedBootcamp.id(), rankedBootcamp.capabilities()), technologiesIndex);
+    }
+
+    private Mono<Optional<Long>> totalItems(TotalsProvider totalsProvider, TotalsMode totals){
+        return totalsProvider.total(totals)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty());
+    }
+
+    private <T> CustomPage<T> buildPage(List<T> data, Integer page, Integer size, Optional<Long> totalItems){
+        return totalItems
+            .map(total -> CustomPage.buildCustomPage(data, page, size, total))
+            .orElseGet(() -> CustomPage.buildCustomPageWithoutTotals(data, page, size));
     }
 
     private <T> Comparator<T> verifyOrder(OrderList order, Comparator<T> baseComparator){
         return order.equals(OrderList.ASCENDANT)? baseComparator: baseComparator.reversed();
     }
+
+    private record RegistrationItem(long index, Capacity capacity, TechnicalMessage rejection) {
+
+        boolean accepted() {
+            return rejection == null;
+        }
+
+        RegistrationItem reject(TechnicalMessage reason) {
+            return new RegistrationItem(index, capacity, reason);
+        }
+    }
+
+    private record RegistrationBatch(List<RegistrationItem> items, Map<String, Long> insertedIds) {
+    }
 }
@@ -0,0 +1,118 @@
+package com.onclass.capacity.domain.usecase;
+
+import com.onclass.capacity.domain.api.CapacityServicePort;
+import com.onclass.capacity.domain.enums.ItemSortList;
+import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.enums.TotalsMode;
+import com.onclass.capacity.domain.model.BootcampCountDrift;
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.CapacityRegistrationResult;
+import com.onclass.capacity.domain.model.spi.CapabilitiesPerBootcamp;
+import com.onclass.capacity.domain.model.spi.CapacityList;
+import com.onclass.capacity.domain.utilities.CursorPage;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import com.onclass.capacity.domain.utilities.SingleFlight;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Shares one in-flight execution between identical concurrent read requests, so a burst of equal
+ * list queries costs a single round of SQL and technology-mngr calls. Writes go straight through.
+ */
+@RequiredArgsConstructor
+public class CoalescingCapacityUseCase implements CapacityServicePort {
+
+    private final CapacityServicePort capacityServicePort;
+
+    private final SingleFlight<ListCapabilitiesKey, CustomPage<CapacityList>> listCapabilitiesFlights =
+        new SingleFlight<>("listCapabilities");
+    private final SingleFlight<SortBootcampsKey, CustomPage<CapabilitiesPerBootcamp>> sortBootcampsFlights =
+        new SingleFlight<>("getSortCapabilitiesByBootcamps");
+    private final SingleFlight<List<Long>, List<CapabilitiesPerBootcamp>> bootcampsIdsFlights =
+        new SingleFlight<>("getCapabilitiesByBootcampsIds");
+
+    @Override
+    public Mono<Capacity> registerCapacity(Capacity capacity) {
+        return capacityServicePort.registerCapacity(capacity);
+    }
+
+    @Override
+    public Flux<CapacityRegistrationResult> registerCapabilities(Flux<Capacity> capabilities) {
+        return capacityServicePort.registerCapabilities(capabilities);
+    }
+
+    @Override
+    public Mono<CustomPage<CapacityList>> listCapabilities(OrderList order, ItemSortList item, Integer page, Integer size, TotalsMode totals) {
+        return listCapabilitiesFlights.execute(
+            new ListCapabilitiesKey(order, item, page, size, totals),
+            () -> capacityServicePort.listCapabilities(order, item, page, size, totals));
+    }
+
+    @Override
+    public Mono<CursorPage<CapacityList>> listCapabilitiesByCursor(OrderList order, ItemSortList item, String cursor, Integer size) {
+        return capacityServicePort.listCapabilitiesByCursor(order, item, cursor, size);
+    }
+
+    @Override
+    public Mono<CursorPage<CapacityList>> searchCapabilities(String text, String cursor, Integer size) {
+        return capacityServicePort.searchCapabilities(text, cursor, size);
+    }
+
+    @Override
+    public Mono<Void> assignCapabilitiesToBootcamp(Long bootcampId, List<Long> capabilitiesIds) {
+        return capacityServicePort.assignCapabilitiesToBootcamp(bootcampId, capabilitiesIds);
+    }
+
+    @Override
+    public Flux<CapabilitiesPerBootcamp> getCapabilitiesByBootcampsIds(List<Long> bootcampIds) {
+        return bootcampsIdsFlights.execute(
+                List.copyOf(bootcampIds),
+                () -> capacityServicePort.getCapabilitiesByBootcampsIds(bootcampIds).collectList())
+            .flatMapIterable(bootcamps -> bootcamps);
+    }
+
+    @Override
+    public Flux<CapabilitiesPerBootcamp> streamCapabilitiesByBootcampsIds(List<Long> bootcampIds) {
+        return capacityServicePort.streamCapabilitiesByBootcampsIds(bootcampIds);
+    }
+
+    @Override
+    public Mono<CustomPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcamps(OrderList order, Integer size, Integer page, TotalsMode totals) {
+        return sortBootcampsFlights.execute(
+            new SortBootcampsKey(order, size, page, totals),
+            () -> capacityServicePort.getSortCapabilitiesByBootcamps(order, size, page, totals));
+    }
+
+    @Override
+    public Mono<CursorPage<CapabilitiesPerBootcamp>> getSortCapabilitiesByBootcampsByCursor(OrderList order, String cursor, Integer size) {
+        return capacityServicePort.getSortCapabilitiesByBootcampsByCursor(order, cursor, size);
+    }
+
+    @Override
+    public Mono<Void> deleteCapabilitiesByBootcampId(Long bootcampId) {
+        return capacityServicePort.deleteCapabilitiesByBootcampId(bootcampId);
+    }
+
+    @Override
+    public Flux<BootcampCountDrift> findBootcampCountersDrift() {
+        return capacityServicePort.findBootcampCountersDrift();
+    }
+
+    @Override
+    public Mono<Integer> rebuildBootcampCounters() {
+        return capacityServicePort.rebuildBootcampCounters();
+    }
+
+    public List<SingleFlight<?, ?>> singleFlights() {
+        return List.of(listCapabilitiesFlights, sortBootcampsFlights, bootcampsIdsFlights);
+    }
+
+    private record ListCapabilitiesKey(OrderList order, ItemSortList item, Integer page, Integer size, TotalsMode totals) {
+    }
+
+    private record SortBootcampsKey(OrderList order, Integer size, Integer page, TotalsMode totals) {
+    }
+}
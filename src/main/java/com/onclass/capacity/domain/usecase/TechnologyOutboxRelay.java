@@ -0,0 +1,174 @@
+package com.onclass.capacity.domain.usecase;
+
+import com.onclass.capacity.domain.constants.Constants;
+import com.onclass.capacity.domain.enums.OutboxOperation;
+import com.onclass.capacity.domain.exceptions.BusinessException;
+import com.onclass.capacity.domain.model.OutboxBacklog;
+import com.onclass.capacity.domain.model.TechnologyOutboxEvent;
+import com.onclass.capacity.domain.spi.CapacityPersistencePort;
+import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers the technology operations written to the outbox by {@link CapacityUseCase} in the same
+ * transaction as the capacity change. Every poll claims a batch of due events, leasing them so that
+ * other instances skip them, and sends them with bounded concurrency using the event idempotency key.
+ * A delivered event is removed; a failed one is retried with exponential backoff until
+ * {@link Constants#OUTBOX_MAX_ATTEMPTS}, while a {@link BusinessException} marks it failed at once.
+ * When a technology assignment ends up failed the capacity it was written for is deleted, so a capacity
+ * never outlives the technologies it was created with. The deletion also releases the bootcamp assignations
+ * made meanwhile, keeping the bootcamp counters in step in the same transaction; a compensation that fails is logged and counted
+ * and the event is parked as failed all the same, so it is never claimed again. Whatever the outcome, the cached technologies of
+ * the capabilities an event touched are evicted once its delivery attempt has settled.
+ */
+@Slf4j
+public class TechnologyOutboxRelay {
+
+    private final TechnologyOutboxPort technologyOutboxPort;
+    private final TechnologiesGateway technologiesGateway;
+    private final CapacityPersistencePort capacityPersistencePort;
+    private final TransactionalOperator transactionalOperator;
+    private final AtomicReference<OutboxBacklog> backlog = new AtomicReference<>(OutboxBacklog.EMPTY);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder compensations = new LongAdder();
+    private final LongAdder compensationFailures = new LongAdder();
+    private final LongAdder relayErrors = new LongAdder();
+    private Disposable polling;
+
+    public TechnologyOutboxRelay(TechnologyOutboxPort technologyOutboxPort, TechnologiesGateway technologiesGateway,
+                                 CapacityPersistencePort capacityPersistencePort, TransactionalOperator transactionalOperator) {
+        this.technologyOutboxPort = technologyOutboxPort;
+        this.technologiesGateway = technologiesGateway;
+        this.capacityPersistencePort = capacityPersistencePort;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public synchronized void start() {
+        if (polling != null && !polling.isDisposed()) {
+            return;
+        }
+        polling = Flux.interval(Duration.ZERO, Duration.ofMillis(Constants.OUTBOX_POLL_INTERVAL_MILLIS))
+            .onBackpressureDrop()
+            .concatMap(tick -> relayBatch()
+                .then(refreshBacklog())
+                .onErrorResume(error -> {
+                    relayErrors.increment();
+                    log.warn(Constants.OUTBOX_RELAY_ERROR, error.getMessage(), error);
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    public synchronized void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    public Mono<Long> relayBatch() {
+        return technologyOutboxPort.claimPending(Constants.OUTBOX_BATCH_SIZE, Duration.ofSeconds(Constants.OUTBOX_LEASE_SECONDS))
+            .flatMap(this::deliver, Constants.OUTBOX_SEND_CONCURRENCY)
+            .count();
+    }
+
+    public long pending() {
+        return backlog.get().pending();
+    }
+
+    public long failed() {
+        return backlog.get().failed();
+    }
+
+    public double lagSeconds() {
+        Instant oldestPendingAt = backlog.get().oldestPendingAt();
+        return oldestPendingAt == null ? 0 : Math.max(0, Duration.between(oldestPendingAt, Instant.now()).toMillis() / 1000.0);
+    }
+
+    public long sent() {
+        return sent.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long compensations() {
+        return compensations.sum();
+    }
+
+    public long compensationFailures() {
+        return compensationFailures.sum();
+    }
+
+    public long relayErrors() {
+        return relayErrors.sum();
+    }
+
+    private Mono<Void> refreshBacklog() {
+        return technologyOutboxPort.backlog()
+            .doOnNext(backlog::set)
+            .then();
+    }
+
+    private Mono<Void> deliver(TechnologyOutboxEvent event) {
+        Mono<?> call = switch (event.operation()) {
+            case ASSIGN_TECHNOLOGIES ->
+                technologiesGateway.assignTechnologiesToCapacity(event.capacityId(), event.ids(), event.idempotencyKey());
+            case DELETE_TECHNOLOGIES ->
+                technologiesGateway.deleteTechnologiesByCapabilitiesIds(event.ids(), event.idempotencyKey());
+        };
+        return call
+            .then(Mono.defer(() -> {
+                sent.increment();
+                return technologyOutboxPort.markSent(event.id());
+            }))
+            .onErrorResume(error -> {
+                failures.increment();
+                int attempts = event.attempts() + 1;
+                boolean exhausted = error instanceof BusinessException || attempts >= Constants.OUTBOX_MAX_ATTEMPTS;
+                Mono<Void> compensation = exhausted && event.operation() == OutboxOperation.ASSIGN_TECHNOLOGIES
+                    ? compensate(event)
+                    : Mono.empty();
+                return compensation
+                    .then(technologyOutboxPort.markFailed(event.id(), attempts, backoff(attempts), exhausted, error.getMessage()));
+            })
+            .then(Mono.defer(() -> technologiesGateway.evictTechnologies(affectedCapabilities(event))));
+    }
+
+    private List<Long> affectedCapabilities(TechnologyOutboxEvent event) {
+        return switch (event.operation()) {
+            case ASSIGN_TECHNOLOGIES -> List.of(event.capacityId());
+            case DELETE_TECHNOLOGIES -> event.ids();
+        };
+    }
+
+    private Mono<Void> compensate(TechnologyOutboxEvent event) {
+        return transactionalOperator.transactional(capacityPersistencePort.deleteCapabilitiesAndAssignations(List.of(event.capacityId())))
+            .doOnSuccess(deleted -> {
+                compensations.increment();
+                log.warn(Constants.OUTBOX_COMPENSATED_CAPACITY, event.capacityId(), event.idempotencyKey());
+            })
+            .onErrorResume(error -> {
+                compensationFailures.increment();
+                log.error(Constants.OUTBOX_COMPENSATION_FAILED, event.capacityId(), event.idempotencyKey(), error.getMessage(), error);
+                return Mono.empty();
+            });
+    }
+
+    private Duration backoff(int attempts) {
+        long seconds = (long) Constants.OUTBOX_BACKOFF_BASE_SECONDS << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, Constants.OUTBOX_BACKOFF_MAX_SECONDS));
+    }
+}
@@ -0,0 +1,98 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.BusinessException;
+import com.onclass.capacity.domain.exceptions.ServiceUnavailableException;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limit in front of a downstream service. Calls over the current limit fail at once
+ * with {@link ServiceUnavailableException} instead of queueing. Every finished call is a sample: an
+ * error other than a {@link BusinessException}, or a latency above {@code latencyThreshold}, cuts the
+ * limit by {@code backoffRatio}; a fast call while at least half the limit is in use grows it by one
+ * per {@code limit} samples. Cancelled calls free their slot without adjusting the limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    @Getter
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Duration retryAfter;
+    private final LongSupplier nanoClock;
+    private final LongAdder rejections = new LongAdder();
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio, Duration retryAfter) {
+        this(name, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, retryAfter, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                               Duration latencyThreshold, double backoffRatio, Duration retryAfter, LongSupplier nanoClock) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.retryAfter = retryAfter;
+        this.nanoClock = nanoClock;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.usingWhen(
+            acquire(),
+            start -> call,
+            start -> Mono.fromRunnable(() -> onSample(start, false)),
+            (start, error) -> Mono.fromRunnable(() -> onSample(start, !(error instanceof BusinessException))),
+            start -> Mono.fromRunnable(this::onCancel));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    private Mono<Long> acquire() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return Mono.just(nanoClock.getAsLong());
+                }
+            }
+            rejections.increment();
+            return Mono.error(new ServiceUnavailableException(TechnicalMessage.DEPENDENCY_OVERLOADED, retryAfter));
+        });
+    }
+
+    private synchronized void onSample(long start, boolean failed) {
+        int utilization = inFlight;
+        inFlight--;
+        if (failed || nanoClock.getAsLong() - start > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (utilization * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private synchronized void onCancel() {
+        inFlight--;
+    }
+}
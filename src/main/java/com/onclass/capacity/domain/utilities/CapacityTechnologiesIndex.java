@@ -0,0 +1,80 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.model.spi.TechnologyItem;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Read-only index of the technologies returned by technology-mngr, keyed by the primitive capacity id.
+ * It is built once per gateway response and shared by every enrichment of that response, so joining
+ * n capabilities against m technology entries costs O(n + m) instead of O(n * m).
+ */
+public final class CapacityTechnologiesIndex {
+
+    private static final List<TechnologyItem> EMPTY_TECHNOLOGIES = Collections.checkedList(List.of(), TechnologyItem.class);
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final long[] keys;
+    private final List<TechnologyItem>[] values;
+    private final boolean[] used;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    private CapacityTechnologiesIndex(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR)));
+        this.keys = new long[capacity];
+        this.values = (List<TechnologyItem>[]) new List[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static CapacityTechnologiesIndex of(List<CapacityTechnologies> capacityTechnologies) {
+        CapacityTechnologiesIndex index = new CapacityTechnologiesIndex(capacityTechnologies.size());
+        for (CapacityTechnologies item : capacityTechnologies) {
+            if (Objects.nonNull(item.id())) {
+                index.putIfAbsent(item.id(), item.technologies());
+            }
+        }
+        return index;
+    }
+
+    public List<TechnologyItem> technologiesOf(Long capacityId) {
+        if (Objects.isNull(capacityId)) {
+            return EMPTY_TECHNOLOGIES;
+        }
+        long key = capacityId;
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return Objects.requireNonNullElse(values[slot], EMPTY_TECHNOLOGIES);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY_TECHNOLOGIES;
+    }
+
+    private void putIfAbsent(long key, List<TechnologyItem> technologies) {
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = technologies;
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int size) {
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.onclass.capacity.domain.utilities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> data;
+    private String nextCursor;
+    private Boolean isLastPage;
+    private Integer pageSize;
+
+    public static <T> CursorPage<T> buildCursorPage(List<T> data, String nextCursor, Integer pageSize){
+        return new CursorPage<>(data, nextCursor, Objects.isNull(nextCursor), pageSize);
+    }
+}
@@ -0,0 +1,65 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.InvalidFormatParamException;
+import com.onclass.capacity.domain.validators.Validator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque continuation token for keyset pagination. It carries the sort key values of the last row
+ * returned, so the next page resumes right after it instead of skipping rows with an offset.
+ */
+public final class CursorToken {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private CursorToken() {
+    }
+
+    public static String encode(Object... values) {
+        String position = Arrays.stream(values)
+            .map(String::valueOf)
+            .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the values stored in the token, or an empty list when there is no token (first page).
+     */
+    public static List<String> decode(String token, int expectedValues) {
+        if (Validator.isNullOrEmpty(token)) {
+            return List.of();
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            List<String> values = List.of(position.split(SEPARATOR, -1));
+            if (values.size() != expectedValues) {
+                throw new InvalidFormatParamException(TechnicalMessage.INVALID_CURSOR);
+            }
+            return values;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidFormatParamException(TechnicalMessage.INVALID_CURSOR);
+        }
+    }
+
+    public static Long longValue(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidFormatParamException(TechnicalMessage.INVALID_CURSOR);
+        }
+    }
+
+    public static Float floatValue(String value) {
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidFormatParamException(TechnicalMessage.INVALID_CURSOR);
+        }
+    }
+}
@@ -35,4 +35,8 @@ public class CustomPage<T> {
         Boolean isLastPage = data.size() < pageSize || (long) currentPage * pageSize == totalItems;
         return new CustomPage<>(data, totalItems, totalPages, isLastPage, currentPage, pageSize);
     }
+
+    public static <T> CustomPage<T> buildCustomPageWithoutTotals(List<T> data, Integer currentPage, Integer pageSize){
+        return new CustomPage<>(data, null, null, data.size() < pageSize, currentPage, pageSize);
+    }
 }
@@ -0,0 +1,157 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.ServiceUnavailableException;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of subscriptions in flight through {@link #execute(Mono)}. A permit is taken on
+ * subscribe and given back when the call completes, fails or is cancelled. Callers over the limit
+ * wait in a bounded FIFO queue without holding a thread; they are rejected with a
+ * {@link ServiceUnavailableException} when the queue is full or when no permit is handed to them
+ * within {@code maxWaitDuration}.
+ */
+public class ReactiveBulkhead {
+
+    private static final Permit PERMIT = new Permit();
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int maxConcurrentCalls;
+    @Getter
+    private final int maxQueueSize;
+    private final Duration maxWaitDuration;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private int inFlight;
+
+    public ReactiveBulkhead(String name, int maxConcurrentCalls, int maxQueueSize, Duration maxWaitDuration) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitDuration = maxWaitDuration;
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.usingWhen(
+            acquire(),
+            permit -> call,
+            permit -> release(),
+            (permit, error) -> release(),
+            permit -> release());
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.defer(() -> {
+            Waiter waiter = new Waiter();
+            synchronized (this) {
+                if (inFlight < maxConcurrentCalls) {
+                    inFlight++;
+                    return Mono.just(PERMIT);
+                }
+                if (queue.size() >= maxQueueSize) {
+                    rejections.increment();
+                    return Mono.error(new ServiceUnavailableException(TechnicalMessage.DEPENDENCY_OVERLOADED, maxWaitDuration));
+                }
+                queue.addLast(waiter);
+            }
+            return Mono.create(waiter::attach)
+                .timeout(maxWaitDuration, Mono.error(() -> {
+                    timeouts.increment();
+                    return new ServiceUnavailableException(TechnicalMessage.DEPENDENCY_OVERLOADED, maxWaitDuration);
+                }));
+        });
+    }
+
+    private Mono<Void> release() {
+        return Mono.fromRunnable(this::releasePermit);
+    }
+
+    private void releasePermit() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            if (next.grant()) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void abandon(Waiter waiter) {
+        queue.remove(waiter);
+    }
+
+    private static final class Permit {
+    }
+
+    /**
+     * A queued subscriber. The permit is handed over by {@link #grant()}; a waiter cancelled after the
+     * hand-over but before the permit reached it gives the permit back.
+     */
+    private final class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile MonoSink<Permit> sink;
+
+        void attach(MonoSink<Permit> monoSink) {
+            monoSink.onCancel(() -> {
+                if (state.compareAndSet(WAITING, CANCELLED)) {
+                    abandon(this);
+                } else {
+                    releasePermit();
+                }
+            });
+            this.sink = monoSink;
+            if (state.get() == GRANTED) {
+                monoSink.success(PERMIT);
+            }
+        }
+
+        boolean grant() {
+            if (!state.compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            MonoSink<Permit> current = sink;
+            if (current != null) {
+                current.success(PERMIT);
+            }
+            return true;
+        }
+    }
+}
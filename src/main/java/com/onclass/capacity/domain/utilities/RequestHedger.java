@@ -0,0 +1,122 @@
+package com.onclass.capacity.domain.utilities;
+
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedges an idempotent call: when the first attempt has not answered after the configured percentile
+ * of recent latencies, a second attempt is subscribed and whichever signals first wins, the other one
+ * being cancelled. A failed hedge never fails the call, it just leaves the first attempt to finish.
+ * Hedges are paid from a token bucket that every call refills by {@code budgetRatio}, so they add at
+ * most that fraction of extra load. No hedge is sent until {@code minSamples} latencies are known.
+ */
+public class RequestHedger {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final int RECOMPUTE_EVERY = 32;
+    private static final double MAX_TOKENS = 10.0;
+
+    @Getter
+    private final String name;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final double budgetRatio;
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private long recorded;
+    private long delayNanos;
+    private double tokens;
+
+    public RequestHedger(String name, double percentile, Duration minDelay, int minSamples, double budgetRatio) {
+        this.name = name;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.minSamples = minSamples;
+        this.budgetRatio = budgetRatio;
+    }
+
+    public <T> Mono<T> execute(Mono<T> attempt) {
+        return Mono.defer(() -> {
+            long delay = depositAndGetDelay();
+            Mono<Outcome<T>> first = timed(attempt, false);
+            if (delay <= 0) {
+                return first.map(Outcome::value);
+            }
+            Mono<Outcome<T>> hedge = Mono.delay(Duration.ofNanos(delay))
+                .flatMap(tick -> {
+                    if (!withdraw()) {
+                        budgetExhausted.increment();
+                        return Mono.never();
+                    }
+                    fired.increment();
+                    return timed(attempt, true).onErrorResume(error -> Mono.never());
+                });
+            return Mono.firstWithSignal(first, hedge)
+                .doOnNext(outcome -> {
+                    if (outcome.hedge()) {
+                        won.increment();
+                    }
+                })
+                .map(Outcome::value);
+        });
+    }
+
+    public long fired() {
+        return fired.sum();
+    }
+
+    public long won() {
+        return won.sum();
+    }
+
+    public long budgetExhausted() {
+        return budgetExhausted.sum();
+    }
+
+    public synchronized Duration currentDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private <T> Mono<Outcome<T>> timed(Mono<T> attempt, boolean hedge) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt
+                .doOnNext(value -> record(System.nanoTime() - start))
+                .map(value -> new Outcome<>(value, hedge));
+        });
+    }
+
+    private synchronized long depositAndGetDelay() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+        return recorded < minSamples ? 0 : delayNanos;
+    }
+
+    private synchronized boolean withdraw() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    private synchronized void record(long latencyNanos) {
+        latencies[(int) (recorded % WINDOW_SIZE)] = latencyNanos;
+        recorded++;
+        if (recorded >= minSamples && recorded % RECOMPUTE_EVERY == 0 || recorded == minSamples) {
+            long[] window = Arrays.copyOf(latencies, (int) Math.min(recorded, WINDOW_SIZE));
+            Arrays.sort(window);
+            int index = (int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1);
+            delayNanos = Math.max(minDelayNanos, window[Math.max(0, index)]);
+        }
+    }
+
+    private record Outcome<T>(T value, boolean hedge) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.onclass.capacity.domain.utilities;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls that share the same key into a single in-flight {@link Mono}.
+ * The first subscriber for a key triggers the call, later subscribers join it until it terminates,
+ * and the next call for that key starts a fresh execution.
+ */
+@RequiredArgsConstructor
+public class SingleFlight<K, V> {
+
+    @Getter
+    private final String name;
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            requests.increment();
+            return inFlight.computeIfAbsent(key, flightKey -> share(flightKey, call));
+        });
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long executions() {
+        return executions.sum();
+    }
+
+    public double coalescingRatio() {
+        long totalRequests = requests();
+        return totalRequests == 0 ? 0.0 : 1.0 - (double) executions() / totalRequests;
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> flight = new AtomicReference<>();
+        flight.set(Mono.defer(() -> {
+                executions.increment();
+                return call.get();
+            })
+            .doFinally(signal -> inFlight.remove(key, flight.get()))
+            .share());
+        return flight.get();
+    }
+}
@@ -0,0 +1,87 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TotalsMode;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Total item count for paginated responses. EXACT serves a cached count that is dropped on
+ * {@link #invalidate()} and otherwise expires after the TTL (which bounds staleness from writes made
+ * by other instances), APPROXIMATE asks the store for its planner estimate and falls back to the exact
+ * count while no estimate exists, and NONE skips the count.
+ * <p>
+ * A query that already computes the exact total alongside its page can hand it over with
+ * {@link #offer(long, long)}; it is only kept if no invalidation happened since the {@link #generation()}
+ * read before the query started.
+ */
+public class TotalsProvider {
+
+    private final Supplier<Mono<Long>> exactCount;
+    private final Supplier<Mono<Long>> approximateCount;
+    private final Duration ttl;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<CachedTotal> cachedTotal = new AtomicReference<>();
+
+    public TotalsProvider(Supplier<Mono<Long>> exactCount, Supplier<Mono<Long>> approximateCount, Duration ttl) {
+        this.exactCount = exactCount;
+        this.approximateCount = approximateCount;
+        this.ttl = ttl;
+    }
+
+    public Mono<Long> total(TotalsMode mode) {
+        return switch (mode) {
+            case EXACT -> Mono.defer(this::exactTotal);
+            case APPROXIMATE -> Mono.defer(approximateCount)
+                .filter(estimate -> estimate >= 0)
+                .switchIfEmpty(Mono.defer(this::exactTotal));
+            case NONE -> Mono.empty();
+        };
+    }
+
+    /**
+     * Whether a page in the given mode needs an exact count that is not cached yet.
+     */
+    public boolean needsExactTotal(TotalsMode mode) {
+        return mode == TotalsMode.EXACT && freshTotal() == null;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void offer(long total, long observedGeneration) {
+        if (observedGeneration == generation.get()) {
+            cachedTotal.set(new CachedTotal(total, observedGeneration, System.nanoTime() + ttl.toNanos()));
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cachedTotal.set(null);
+    }
+
+    private Mono<Long> exactTotal() {
+        CachedTotal cached = freshTotal();
+        if (cached != null) {
+            return Mono.just(cached.total());
+        }
+        long observedGeneration = generation.get();
+        return Mono.defer(exactCount)
+            .doOnNext(total -> offer(total, observedGeneration));
+    }
+
+    private CachedTotal freshTotal() {
+        CachedTotal cached = cachedTotal.get();
+        if (cached == null || cached.generation() != generation.get() || System.nanoTime() - cached.expiresAtNanos() >= 0) {
+            return null;
+        }
+        return cached;
+    }
+
+    private record CachedTotal(long total, long generation, long expiresAtNanos) {
+    }
+}
@@ -1,13 +1,22 @@
 package com.onclass.capacity.infrastructure.adapters.persistenceadapter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.EntityAlreadyExistException;
+import com.onclass.capacity.domain.exceptions.TechnicalException;
 import com.onclass.capacity.domain.model.*;
 import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
 import com.onclass.capacity.domain.model.spi.CapacityBasicItem;
+import com.onclass.capacity.domain.model.spi.RankedBootcamp;
+import com.onclass.capacity.domain.model.spi.RankedBootcampPage;
 import com.onclass.capacity.domain.spi.CapacityPersistencePort;
-import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.CapacityBootcampEntity;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampCountProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampRankProjection;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.CapacityBootcampProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.CapacitySearchProjection;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityBootcampRepository;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
@@ -16,23 +25,39 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.ASSIGNATIONS_BATCH_SIZE;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.SEARCH_MAX_CANDIDATES;
 
 @AllArgsConstructor
 public class CapacityPersistenceAdapter implements CapacityPersistencePort {
+    private static final TypeReference<List<CapacityBasicItem>> CAPABILITIES_TYPE = new TypeReference<>() {};
+
     private final CapacityRepository capacityRepository;
     private final CapacityBootcampRepository capacityBootcampRepository;
     private final CapacityEntityMapper capacityEntityMapper;
+    private final ObjectMapper objectMapper;
 
     @Override
-    public Mono<Capacity> upsert(Capacity capacity) {
-        return capacityRepository.save(capacityEntityMapper.toEntity(capacity))
-                .map(capacityEntityMapper::toModel);
+    public Mono<Capacity> insertIfAbsent(Capacity capacity) {
+        return capacityRepository.insertIfAbsent(capacity.name(), capacity.description())
+                .map(capacityEntityMapper::toModel)
+                .switchIfEmpty(Mono.error(new EntityAlreadyExistException(TechnicalMessage.CAPACITY_ALREADY_EXISTS)));
     }
 
     @Override
-    public Mono<Capacity> findByName(String nameCapacity) {
-        return capacityRepository.findByName(nameCapacity)
-                .map(capacityEntityMapper::toModel);
+    public Flux<String> findExistingNames(List<String> names) {
+        return capacityRepository.findExistingNames(names.stream().map(name -> name.toLowerCase(Locale.ROOT)).toList());
+    }
+
+    @Override
+    public Flux<Capacity> insertAll(List<Capacity> capabilities) {
+        return capacityRepository.insertAll(
+                capabilities.stream().map(Capacity::name).toList(),
+                capabilities.stream().map(Capacity::description).toList())
+            .map(capacityEntityMapper::toModel);
     }
 
     @Override
@@ -44,11 +69,38 @@ public class CapacityPersistenceAdapter implements CapacityPersistencePort {
         }
     }
 
+    @Override
+    public Flux<Capacity> findSortByNameAfter(String order, Integer size, String lastName, Long lastId) {
+        if (Objects.isNull(lastName) || Objects.isNull(lastId)){
+            return findPaginatedAndSortByName(order, size, 0);
+        }
+        if (order.equals(OrderList.DESCENDANT.getMessage())){
+            return capacityRepository.findAndSortByNameDescAfter(lastName, lastId, size).map(capacityEntityMapper::toModel);
+        }else{
+            return capacityRepository.findAndSortByNameAscAfter(lastName, lastId, size).map(capacityEntityMapper::toModel);
+        }
+    }
+
+    @Override
+    public Flux<CapacitySearchHit> searchByText(String text, Integer size, Float lastScore, Long lastId) {
+        String prefix = escapeLikePattern(text) + "%";
+        Flux<CapacitySearchProjection> hits = Objects.isNull(lastScore) || Objects.isNull(lastId)
+            ? capacityRepository.searchByText(text, prefix, SEARCH_MAX_CANDIDATES, size)
+            : capacityRepository.searchByTextAfter(text, prefix, SEARCH_MAX_CANDIDATES, lastScore, lastId, size);
+        return hits.map(hit -> new CapacitySearchHit(
+            new Capacity(hit.getId(), hit.getName(), hit.getDescription(), null), hit.getScore()));
+    }
+
     @Override
     public Flux<Capacity> findAllByIds(List<Long> capabilitiesIds) {
         return capacityRepository.findAllById(capabilitiesIds).map(capacityEntityMapper::toModel);
     }
 
+    @Override
+    public Mono<Long> countExistingCapabilities(List<Long> capabilitiesIds) {
+        return capacityRepository.countAndLockByIds(capabilitiesIds);
+    }
+
     @Override
     public Mono<Long> countCapabilities() {
         return capacityRepository.count();
@@ -56,13 +108,15 @@ public class CapacityPersistenceAdapter implements CapacityPersistencePort {
 
     @Override
     public Mono<Void> assignCapabilitiesToBootcamp(Long bootcampId, List<Long> capacityIds) {
-        return Flux.fromStream(capacityIds.stream())
-            .flatMap( capacityId ->
-                capacityBootcampRepository.save(
-                    CapacityBootcampEntity.builder()
-                        .bootcampId(bootcampId)
-                        .capacityId(capacityId).build())
-            ).then();
+        return Flux.fromIterable(capacityIds)
+            .buffer(ASSIGNATIONS_BATCH_SIZE)
+            .concatMap( capacityIdsBatch ->
+                capacityBootcampRepository.insertAssignations(bootcampId, capacityIdsBatch)
+            )
+            .reduce(0L, (insertedCount, batchCount) -> insertedCount + batchCount)
+            .filter(insertedCount -> insertedCount > 0)
+            .flatMap(insertedCount -> capacityBootcampRepository.incrementCapabilitiesCount(bootcampId, insertedCount))
+            .then();
     }
 
     @Override
@@ -78,11 +132,40 @@ public class CapacityPersistenceAdapter implements CapacityPersistencePort {
     }
 
     @Override
-    public Flux<CapabilitiesBasicPerBootcamp> findPaginatedAndSortByBootcampNumber(String order, Integer size, Integer page) {
-        return sortBootcampCount(order, size, page)
-            .map(BootcampCountProjection::getBootcampId)
+    public Flux<CapabilitiesBasicPerBootcamp> streamCapabilitiesByBootcampsIds(List<Long> bootcampsIds) {
+        return capacityRepository.findCapabilitiesByBootcampsIdsOrderByBootcamp(bootcampsIds)
+            .bufferUntilChanged(CapacityBootcampProjection::getBootcampId)
+            .map(capabilitiesGroup -> new CapabilitiesBasicPerBootcamp(
+                capabilitiesGroup.get(0).getBootcampId(),
+                capabilitiesGroup.stream()
+                    .map(capacity -> new CapacityBasicItem(capacity.getCapacityId(), capacity.getCapacityName()))
+                    .toList()
+            ));
+    }
+
+    @Override
+    public Mono<RankedBootcampPage> findPaginatedAndSortByBootcampNumber(String order, Integer size, Integer page, boolean withTotal) {
+        return rankBootcamps(order, size, page, withTotal)
             .collectList()
-            .flatMapMany(this::findCapabilitiesByBootcampsIds);
+            .map(bootcamps -> new RankedBootcampPage(
+                bootcamps.stream()
+                    .map(bootcamp -> new RankedBootcamp(
+                        bootcamp.getBootcampId(), bootcamp.getCapabilitiesCount(), toCapabilities(bootcamp.getCapabilities())))
+                    .toList(),
+                bootcamps.isEmpty() ? null : bootcamps.get(0).getTotalBootcamps()));
+    }
+
+    @Override
+    public Flux<RankedBootcamp> findSortByBootcampNumberAfter(String order, Integer size, Long lastCount, Long lastBootcampId) {
+        if (Objects.isNull(lastCount) || Objects.isNull(lastBootcampId)){
+            return findPaginatedAndSortByBootcampNumber(order, size, 0, false)
+                .flatMapIterable(RankedBootcampPage::bootcamps);
+        }
+        if (order.equals(OrderList.DESCENDANT.getMessage())){
+            return findCapabilitiesInRankOrder(capacityRepository.findBootcampIdsOrderByCapabilitiesCountDescAfter(lastCount, lastBootcampId, size));
+        }else{
+            return findCapabilitiesInRankOrder(capacityRepository.findBootcampIdsOrderByCapabilitiesCountAscAfter(lastCount, lastBootcampId, size));
+        }
     }
 
     @Override
@@ -91,8 +174,13 @@ public class CapacityPersistenceAdapter implements CapacityPersistencePort {
     }
 
     @Override
-    public Flux<Capacity> findCapabilitiesByBootcampId(Long bootcampId) {
-        return capacityRepository.findCapabilitiesByBootcampId(bootcampId).map(capacityEntityMapper::toModel);
+    public Mono<Long> estimateCapabilities() {
+        return capacityRepository.estimateCapabilities();
+    }
+
+    @Override
+    public Mono<Long> estimateCapabilitiesPerBootcamps() {
+        return capacityRepository.estimateCapabilitiesPerBootcamps();
     }
 
     @Override
@@ -100,21 +188,81 @@ public class CapacityPersistenceAdapter implements CapacityPersistencePort {
         return capacityRepository.deleteAllById(capabilitiesIds);
     }
 
+    /**
+     * Removes the bootcamp assignations of the capabilities first, decrementing the counter of every
+     * bootcamp they were assigned to and dropping counters left at zero, then deletes the capabilities.
+     * Must run inside a transaction.
+     */
+    @Override
+    public Mono<Void> deleteCapabilitiesAndAssignations(List<Long> capabilitiesIds) {
+        return capacityBootcampRepository.deleteAssignationsOfCapabilities(capabilitiesIds)
+            .then(capacityBootcampRepository.deleteEmptyCapabilitiesCounts())
+            .then(capacityRepository.deleteAllById(capabilitiesIds));
+    }
+
     @Override
     public Mono<Void> deleteAllAssignations(Long bootcampId) {
-        return capacityBootcampRepository.deleteAllAssignations(bootcampId);
+        return capacityBootcampRepository.deleteAllAssignations(bootcampId)
+            .then(capacityBootcampRepository.deleteCapabilitiesCount(bootcampId));
+    }
+
+    @Override
+    public Flux<Long> findExclusiveCapabilitiesIds(Long bootcampId) {
+        return capacityBootcampRepository.findExclusiveCapabilitiesIds(bootcampId);
     }
 
     @Override
-    public Mono<Boolean> verifyOtherAssignations(Long capacityId, Long bootcampId) {
-        return capacityBootcampRepository.verifyOtherAssignations(capacityId, bootcampId);
+    public Flux<BootcampCountDrift> findCapabilitiesCountDrift(int limit) {
+        return capacityBootcampRepository.findCapabilitiesCountDrift(limit)
+            .map(drift -> new BootcampCountDrift(drift.getBootcampId(), drift.getExpectedCount(), drift.getStoredCount()));
     }
 
-    private Flux<BootcampCountProjection> sortBootcampCount(String order, Integer size, Integer page){
-         if (order.equals(OrderList.DESCENDANT.getMessage())){
-            return capacityRepository.findBootcampIdsOrderByCapabilitiesCountDesc(size, page*size);
+    /**
+     * Locks the counter table first, so assignations running meanwhile wait for the rebuild instead of
+     * updating counters it is about to overwrite. Must run inside a transaction.
+     */
+    @Override
+    public Mono<Integer> rebuildCapabilitiesCount() {
+        return capacityBootcampRepository.lockCapabilitiesCount()
+            .then(capacityBootcampRepository.rebuildCapabilitiesCount());
+    }
+
+    private Flux<RankedBootcamp> findCapabilitiesInRankOrder(Flux<BootcampCountProjection> rankedBootcamps){
+        return rankedBootcamps
+            .collectList()
+            .flatMapMany(bootcampsCounts -> {
+                if (bootcampsCounts.isEmpty()) {
+                    return Flux.empty();
+                }
+                return findCapabilitiesByBootcampsIds(bootcampsCounts.stream().map(BootcampCountProjection::getBootcampId).toList())
+                    .collectMap(CapabilitiesBasicPerBootcamp::id)
+                    .flatMapIterable(bootcampsById -> bootcampsCounts.stream()
+                        .filter(bootcampCount -> bootcampsById.containsKey(bootcampCount.getBootcampId()))
+                        .map(bootcampCount -> new RankedBootcamp(
+                            bootcampCount.getBootcampId(),
+                            bootcampCount.getCapabilitiesCount(),
+                            bootcampsById.get(bootcampCount.getBootcampId()).capabilities()))
+                        .toList());
+            });
+    }
+
+    private Flux<BootcampRankProjection> rankBootcamps(String order, Integer size, Integer page, boolean withTotal){
+        if (order.equals(OrderList.DESCENDANT.getMessage())){
+            return capacityRepository.findBootcampsRankPageOrderByCapabilitiesCountDesc(size, page*size, withTotal);
         }else{
-            return capacityRepository.findBootcampIdsOrderByCapabilitiesCountAsc(size, page*size);
+            return capacityRepository.findBootcampsRankPageOrderByCapabilitiesCountAsc(size, page*size, withTotal);
+        }
+    }
+
+    private List<CapacityBasicItem> toCapabilities(String capabilitiesJson){
+        try {
+            return objectMapper.readValue(capabilitiesJson, CAPABILITIES_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new TechnicalException(ex, TechnicalMessage.INTERNAL_ERROR);
         }
     }
+
+    private String escapeLikePattern(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
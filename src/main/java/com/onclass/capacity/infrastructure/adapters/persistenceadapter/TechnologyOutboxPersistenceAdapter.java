@@ -0,0 +1,114 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.enums.OutboxOperation;
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.TechnicalException;
+import com.onclass.capacity.domain.model.OutboxBacklog;
+import com.onclass.capacity.domain.model.TechnologyOutboxEvent;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.TechnologyOutboxEntity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.TechnologyOutboxRepository;
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.OUTBOX_ERROR_MAX_LENGTH;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.OUTBOX_STATUS_FAILED;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.OUTBOX_STATUS_PENDING;
+
+@AllArgsConstructor
+public class TechnologyOutboxPersistenceAdapter implements TechnologyOutboxPort {
+    private static final TypeReference<List<Long>> IDS_TYPE = new TypeReference<>() {};
+
+    private final TechnologyOutboxRepository technologyOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> enqueue(TechnologyOutboxEvent event) {
+        return Mono.fromCallable(() -> writeIds(event.ids()))
+            .flatMap(payload -> technologyOutboxRepository.enqueue(
+                event.operation().name(), event.idempotencyKey(), event.capacityId(), payload))
+            .then();
+    }
+
+    @Override
+    public Mono<Void> enqueueAll(List<TechnologyOutboxEvent> events) {
+        Map<OutboxOperation, List<TechnologyOutboxEvent>> eventsByOperation = events.stream()
+            .collect(Collectors.groupingBy(TechnologyOutboxEvent::operation));
+        return Flux.fromIterable(eventsByOperation.entrySet())
+            .concatMap(operationEvents -> Mono.fromCallable(() -> operationEvents.getValue().stream()
+                    .map(event -> writeIds(event.ids()))
+                    .toList())
+                .flatMap(payloads -> technologyOutboxRepository.enqueueAll(
+                    operationEvents.getKey().name(),
+                    operationEvents.getValue().stream().map(TechnologyOutboxEvent::idempotencyKey).toList(),
+                    operationEvents.getValue().stream().map(TechnologyOutboxEvent::capacityId).toList(),
+                    payloads)))
+            .then();
+    }
+
+    @Override
+    public Flux<TechnologyOutboxEvent> claimPending(Integer limit, Duration lease) {
+        return technologyOutboxRepository.claimPending(limit, lease.toSeconds())
+            .map(this::toModel);
+    }
+
+    @Override
+    public Mono<Void> markSent(Long id) {
+        return technologyOutboxRepository.deleteById(id);
+    }
+
+    @Override
+    public Mono<Void> markFailed(Long id, Integer attempts, Duration backoff, boolean exhausted, String error) {
+        String lastError = Objects.requireNonNullElse(error, "");
+        return technologyOutboxRepository.markFailed(
+                id,
+                attempts,
+                exhausted ? OUTBOX_STATUS_FAILED : OUTBOX_STATUS_PENDING,
+                backoff.toSeconds(),
+                lastError.substring(0, Math.min(lastError.length(), OUTBOX_ERROR_MAX_LENGTH)))
+            .then();
+    }
+
+    @Override
+    public Mono<OutboxBacklog> backlog() {
+        return technologyOutboxRepository.backlog()
+            .map(backlog -> new OutboxBacklog(backlog.getPending(), backlog.getFailed(), backlog.getOldestPendingAt()));
+    }
+
+    private TechnologyOutboxEvent toModel(TechnologyOutboxEntity entity) {
+        return new TechnologyOutboxEvent(
+            entity.getId(),
+            OutboxOperation.valueOf(entity.getOperation()),
+            entity.getIdempotencyKey(),
+            entity.getCapacityId(),
+            readIds(entity.getPayload()),
+            entity.getAttempts(),
+            entity.getCreatedAt());
+    }
+
+    private String writeIds(List<Long> ids) {
+        try {
+            return objectMapper.writeValueAsString(ids);
+        } catch (JsonProcessingException ex) {
+            throw new TechnicalException(ex, TechnicalMessage.INTERNAL_ERROR);
+        }
+    }
+
+    private List<Long> readIds(String payload) {
+        try {
+            return objectMapper.readValue(payload, IDS_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new TechnicalException(ex, TechnicalMessage.INTERNAL_ERROR);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Table("technology_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TechnologyOutboxEntity {
+    @Id
+    private Long id;
+
+    private String operation;
+
+    @Column("idempotency_key")
+    private String idempotencyKey;
+
+    @Column("capacity_id")
+    private Long capacityId;
+
+    private String payload;
+
+    private Integer attempts;
+
+    @Column("created_at")
+    private Instant createdAt;
+}
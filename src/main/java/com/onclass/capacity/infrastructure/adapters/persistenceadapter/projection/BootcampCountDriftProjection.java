@@ -0,0 +1,12 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class BootcampCountDriftProjection {
+	private Long bootcampId;
+	private Long expectedCount;
+	private Long storedCount;
+}
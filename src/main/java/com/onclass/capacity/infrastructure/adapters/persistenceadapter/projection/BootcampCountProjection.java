@@ -7,5 +7,5 @@ import lombok.Data;
 @Data
 public class BootcampCountProjection {
 	private Long bootcampId;
-	private int capabilitiesCount;
+	private Long capabilitiesCount;
 }
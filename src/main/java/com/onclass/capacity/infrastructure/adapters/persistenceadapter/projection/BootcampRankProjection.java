@@ -0,0 +1,13 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class BootcampRankProjection {
+	private Long bootcampId;
+	private Long capabilitiesCount;
+	private Long totalBootcamps;
+	private String capabilities;
+}
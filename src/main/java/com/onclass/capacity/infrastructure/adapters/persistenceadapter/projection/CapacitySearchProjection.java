@@ -0,0 +1,13 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class CapacitySearchProjection {
+	private Long id;
+	private String name;
+	private String description;
+	private Float score;
+}
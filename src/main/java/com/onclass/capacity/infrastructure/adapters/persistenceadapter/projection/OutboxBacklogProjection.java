@@ -0,0 +1,14 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Builder
+@Data
+public class OutboxBacklogProjection {
+	private Long pending;
+	private Long failed;
+	private Instant oldestPendingAt;
+}
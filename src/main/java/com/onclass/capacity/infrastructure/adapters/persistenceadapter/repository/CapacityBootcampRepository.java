@@ -1,24 +1,117 @@
 package com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository;
 
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.CapacityBootcampEntity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampCountDriftProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampCountProjection;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 
 @Repository
 public interface CapacityBootcampRepository extends ReactiveCrudRepository<CapacityBootcampEntity, Long> {
 
 	@Query("""
-        SELECT CASE WHEN COUNT(*) > 0 THEN TRUE ELSE FALSE END
-        FROM capacity_bootcamp
-        WHERE id_capacity = :capacityId AND id_bootcamp NOT IN (:bootcampId);
+        SELECT cb.id_capacity
+        FROM capacity_bootcamp cb
+        WHERE cb.id_bootcamp = :bootcampId
+        AND NOT EXISTS (
+            SELECT 1
+            FROM capacity_bootcamp other
+            WHERE other.id_capacity = cb.id_capacity AND other.id_bootcamp <> :bootcampId
+        )
     """)
-	Mono<Boolean> verifyOtherAssignations(Long capacityId, Long bootcampId);
+	Flux<Long> findExclusiveCapabilitiesIds(Long bootcampId);
 
 	@Modifying
 	@Query("DELETE FROM capacity_bootcamp WHERE id_bootcamp = :bootcampId")
 	Mono<Void> deleteAllAssignations(Long bootcampId);
+
+	@Modifying
+	@Query("""
+        INSERT INTO capacity_bootcamp (id_capacity, id_bootcamp)
+        SELECT UNNEST(ARRAY[:capacityIds]::BIGINT[]), :bootcampId
+    """)
+	Mono<Integer> insertAssignations(Long bootcampId, List<Long> capacityIds);
+
+	@Modifying
+	@Query("""
+        INSERT INTO bootcamp_capabilities_count (id_bootcamp, capabilities_count)
+        VALUES (:bootcampId, :addedCount)
+        ON CONFLICT (id_bootcamp)
+        DO UPDATE SET capabilities_count = bootcamp_capabilities_count.capabilities_count + EXCLUDED.capabilities_count
+    """)
+	Mono<Integer> incrementCapabilitiesCount(Long bootcampId, long addedCount);
+
+	@Modifying
+	@Query("DELETE FROM bootcamp_capabilities_count WHERE id_bootcamp = :bootcampId")
+	Mono<Void> deleteCapabilitiesCount(Long bootcampId);
+
+	@Modifying
+	@Query("""
+        WITH removed AS (
+            DELETE FROM capacity_bootcamp
+            WHERE id_capacity IN (:capabilitiesIds)
+            RETURNING id_bootcamp
+        )
+        UPDATE bootcamp_capabilities_count stored
+        SET capabilities_count = stored.capabilities_count - released.removed_count
+        FROM (
+            SELECT id_bootcamp, COUNT(*) AS removed_count
+            FROM removed
+            GROUP BY id_bootcamp
+        ) released
+        WHERE stored.id_bootcamp = released.id_bootcamp
+    """)
+	Mono<Integer> deleteAssignationsOfCapabilities(List<Long> capabilitiesIds);
+
+	@Modifying
+	@Query("DELETE FROM bootcamp_capabilities_count WHERE capabilities_count <= 0")
+	Mono<Integer> deleteEmptyCapabilitiesCounts();
+
+	@Query("SELECT id_bootcamp AS bootcampId, capabilities_count AS capabilitiesCount FROM bootcamp_capabilities_count")
+	Flux<BootcampCountProjection> findAllCapabilitiesCounts();
+
+	@Query("""
+        SELECT COALESCE(actual.id_bootcamp, stored.id_bootcamp) AS bootcampId,
+            COALESCE(actual.capabilities_count, 0) AS expectedCount,
+            COALESCE(stored.capabilities_count, 0) AS storedCount
+        FROM (
+            SELECT id_bootcamp, COUNT(*) AS capabilities_count
+            FROM capacity_bootcamp
+            GROUP BY id_bootcamp
+        ) actual
+        FULL OUTER JOIN bootcamp_capabilities_count stored ON stored.id_bootcamp = actual.id_bootcamp
+        WHERE COALESCE(actual.capabilities_count, 0) <> COALESCE(stored.capabilities_count, 0)
+        ORDER BY bootcampId
+        LIMIT :limit
+    """)
+	Flux<BootcampCountDriftProjection> findCapabilitiesCountDrift(int limit);
+
+	@Modifying
+	@Query("LOCK TABLE bootcamp_capabilities_count IN SHARE ROW EXCLUSIVE MODE")
+	Mono<Void> lockCapabilitiesCount();
+
+	@Modifying
+	@Query("""
+        WITH actual AS (
+            SELECT id_bootcamp, COUNT(*) AS capabilities_count
+            FROM capacity_bootcamp
+            GROUP BY id_bootcamp
+        ), removed AS (
+            DELETE FROM bootcamp_capabilities_count stored
+            WHERE NOT EXISTS (SELECT 1 FROM actual WHERE actual.id_bootcamp = stored.id_bootcamp)
+        )
+        INSERT INTO bootcamp_capabilities_count (id_bootcamp, capabilities_count)
+        SELECT id_bootcamp, capabilities_count FROM actual
+        ON CONFLICT (id_bootcamp)
+        DO UPDATE SET capabilities_count = EXCLUDED.capabilities_count
+        WHERE bootcamp_capabilities_count.capabilities_count <> EXCLUDED.capabilities_count
+    """)
+	Mono<Integer> rebuildCapabilitiesCount();
 }
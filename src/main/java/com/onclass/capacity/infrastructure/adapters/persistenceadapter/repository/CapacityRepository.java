@@ -1,7 +1,9 @@
 package com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository;
 
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampCountProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampRankProjection;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.CapacityBootcampProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.CapacitySearchProjection;
 import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.CapacityEntity;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -14,17 +16,106 @@ import java.util.List;
 
 @Repository
 public interface CapacityRepository extends ReactiveCrudRepository<CapacityEntity, Long> {
-    Mono<CapacityEntity> findByName(String name);
+    @Query("""
+        INSERT INTO capabilities (name, description)
+        VALUES (:name, :description)
+        ON CONFLICT ((LOWER(name))) DO NOTHING
+        RETURNING id, name, description
+    """)
+    Mono<CapacityEntity> insertIfAbsent(String name, String description);
+
+    @Query("SELECT LOWER(name) FROM capabilities WHERE LOWER(name) IN (:names)")
+    Flux<String> findExistingNames(List<String> names);
+
+    @Query("""
+        INSERT INTO capabilities (name, description)
+        SELECT * FROM UNNEST(ARRAY[:names]::VARCHAR[], ARRAY[:descriptions]::VARCHAR[])
+        ON CONFLICT ((LOWER(name))) DO NOTHING
+        RETURNING id, name, description
+    """)
+    Flux<CapacityEntity> insertAll(List<String> names, List<String> descriptions);
 
-    @Query("SELECT * FROM capabilities ORDER BY name ASC LIMIT :size OFFSET :offset")
+    @Query("SELECT * FROM capabilities ORDER BY name ASC, id ASC")
+    Flux<CapacityEntity> findAllSortByName();
+
+    @Query("SELECT * FROM capabilities ORDER BY name ASC, id ASC LIMIT :size OFFSET :offset")
     Flux<CapacityEntity> findAndSortByNameAsc(int offset, int size);
 
-    @Query("SELECT * FROM capabilities ORDER BY name DESC LIMIT :size OFFSET :offset")
+    @Query("SELECT * FROM capabilities ORDER BY name DESC, id DESC LIMIT :size OFFSET :offset")
     Flux<CapacityEntity> findAndSortByNameDesc(int offset, int size);
 
-    @Query("SELECT COUNT(DISTINCT id_bootcamp) FROM capacity_bootcamp")
+    @Query("SELECT * FROM capabilities WHERE (name, id) > (:lastName, :lastId) ORDER BY name ASC, id ASC LIMIT :size")
+    Flux<CapacityEntity> findAndSortByNameAscAfter(String lastName, Long lastId, int size);
+
+    @Query("SELECT * FROM capabilities WHERE (name, id) < (:lastName, :lastId) ORDER BY name DESC, id DESC LIMIT :size")
+    Flux<CapacityEntity> findAndSortByNameDescAfter(String lastName, Long lastId, int size);
+
+    /**
+     * Capabilities whose name starts with the text or contains a word similar to it, or whose
+     * description does; prefix matches rank first. The score is not indexable, so each page
+     * recomputes the ranking over a bounded candidate set: the {@code :candidates} closest prefix
+     * matches, name matches and description matches by word distance, each walked in order on the
+     * GiST trigram indexes. The set does not depend on ids, so the best matches are always in it,
+     * and it is the same from one page to the next.
+     */
+    String SEARCH_MATCHES = """
+        WITH candidates AS (
+            (SELECT c.id FROM capabilities c
+                WHERE c.name ILIKE :prefix
+                ORDER BY :text <<-> c.name, c.id
+                LIMIT :candidates)
+            UNION
+            (SELECT c.id FROM capabilities c
+                WHERE :text <% c.name
+                ORDER BY :text <<-> c.name, c.id
+                LIMIT :candidates)
+            UNION
+            (SELECT c.id FROM capabilities c
+                WHERE :text <% c.description
+                ORDER BY :text <<-> c.description, c.id
+                LIMIT :candidates)
+        ), matches AS (
+            SELECT c.id, c.name, c.description,
+                ((CASE WHEN c.name ILIKE :prefix THEN 1 ELSE 0 END)
+                    + GREATEST(word_similarity(:text, c.name), 0.5 * word_similarity(:text, COALESCE(c.description, ''))))::REAL AS score
+            FROM candidates
+            JOIN capabilities c ON c.id = candidates.id
+        )
+    """;
+
+    @Query(SEARCH_MATCHES + """
+        SELECT id, name, description, score
+        FROM matches
+        ORDER BY score DESC, id ASC
+        LIMIT :size
+    """)
+    Flux<CapacitySearchProjection> searchByText(String text, String prefix, int candidates, int size);
+
+    @Query(SEARCH_MATCHES + """
+        SELECT id, name, description, score
+        FROM matches
+        WHERE score < :lastScore OR (score = :lastScore AND id > :lastId)
+        ORDER BY score DESC, id ASC
+        LIMIT :size
+    """)
+    Flux<CapacitySearchProjection> searchByTextAfter(String text, String prefix, int candidates, Float lastScore, Long lastId, int size);
+
+    @Query("""
+        SELECT COUNT(*) FROM (
+            SELECT id FROM capabilities WHERE id IN (:capabilitiesIds) FOR KEY SHARE
+        ) existing
+    """)
+    Mono<Long> countAndLockByIds(List<Long> capabilitiesIds);
+
+    @Query("SELECT COUNT(*) FROM bootcamp_capabilities_count")
     Mono<Long> countCapabilitiesPerBootcamps();
 
+    @Query("SELECT reltuples::BIGINT FROM pg_class WHERE oid = 'capabilities'::regclass")
+    Mono<Long> estimateCapabilities();
+
+    @Query("SELECT reltuples::BIGINT FROM pg_class WHERE oid = 'bootcamp_capabilities_count'::regclass")
+    Mono<Long> estimateCapabilitiesPerBootcamps();
+
     @Query("""
         SELECT cb.id_bootcamp AS bootcampId,
             c.id AS capacityId,
@@ -36,29 +127,76 @@ public interface CapacityRepository extends ReactiveCrudRepository<CapacityEntit
     Flux<CapacityBootcampProjection> findCapabilitiesByBootcampsIds(List<Long> bootcampsIds);
 
     @Query("""
-        SELECT cb.id_bootcamp AS bootcampId, COUNT(cb.id_capacity) AS capabilitiesCount
+        SELECT cb.id_bootcamp AS bootcampId,
+            c.id AS capacityId,
+            c.name AS capacityName
         FROM capacity_bootcamp cb
-        GROUP BY cb.id_bootcamp
-        ORDER BY capabilitiesCount DESC
-        LIMIT :size OFFSET :offset
+        INNER JOIN capabilities c ON cb.id_capacity = c.id
+        WHERE cb.id_bootcamp IN (:bootcampsIds)
+        ORDER BY cb.id_bootcamp
     """)
-    Flux<BootcampCountProjection> findBootcampIdsOrderByCapabilitiesCountDesc(int size, int offset);
+    Flux<CapacityBootcampProjection> findCapabilitiesByBootcampsIdsOrderByBootcamp(List<Long> bootcampsIds);
 
+    /**
+     * One page of the ranking with the capabilities of each bootcamp and, when asked for, the number of
+     * ranked bootcamps. The count is an uncorrelated subquery behind the CASE, so it only runs when
+     * withTotal is set.
+     */
     @Query("""
-        SELECT cb.id_bootcamp AS bootcampId, COUNT(cb.id_capacity) AS capabilitiesCount
-        FROM capacity_bootcamp cb
-        GROUP BY cb.id_bootcamp
-        ORDER BY capabilitiesCount ASC
-        LIMIT :size OFFSET :offset
+        WITH ranked AS (
+            SELECT bc.id_bootcamp AS bootcamp_id,
+                bc.capabilities_count
+            FROM bootcamp_capabilities_count bc
+            ORDER BY bc.capabilities_count DESC, bc.id_bootcamp DESC
+            LIMIT :size OFFSET :offset
+        )
+        SELECT r.bootcamp_id AS bootcampId,
+            r.capabilities_count AS capabilitiesCount,
+            CASE WHEN :withTotal THEN (SELECT COUNT(*) FROM bootcamp_capabilities_count) END AS totalBootcamps,
+            json_agg(json_build_object('id', c.id, 'name', c.name) ORDER BY c.id)::text AS capabilities
+        FROM ranked r
+        INNER JOIN capacity_bootcamp cb ON cb.id_bootcamp = r.bootcamp_id
+        INNER JOIN capabilities c ON c.id = cb.id_capacity
+        GROUP BY r.bootcamp_id, r.capabilities_count
+        ORDER BY r.capabilities_count DESC, r.bootcamp_id DESC
+    """)
+    Flux<BootcampRankProjection> findBootcampsRankPageOrderByCapabilitiesCountDesc(int size, int offset, boolean withTotal);
+
+    @Query("""
+        WITH ranked AS (
+            SELECT bc.id_bootcamp AS bootcamp_id,
+                bc.capabilities_count
+            FROM bootcamp_capabilities_count bc
+            ORDER BY bc.capabilities_count ASC, bc.id_bootcamp ASC
+            LIMIT :size OFFSET :offset
+        )
+        SELECT r.bootcamp_id AS bootcampId,
+            r.capabilities_count AS capabilitiesCount,
+            CASE WHEN :withTotal THEN (SELECT COUNT(*) FROM bootcamp_capabilities_count) END AS totalBootcamps,
+            json_agg(json_build_object('id', c.id, 'name', c.name) ORDER BY c.id)::text AS capabilities
+        FROM ranked r
+        INNER JOIN capacity_bootcamp cb ON cb.id_bootcamp = r.bootcamp_id
+        INNER JOIN capabilities c ON c.id = cb.id_capacity
+        GROUP BY r.bootcamp_id, r.capabilities_count
+        ORDER BY r.capabilities_count ASC, r.bootcamp_id ASC
+    """)
+    Flux<BootcampRankProjection> findBootcampsRankPageOrderByCapabilitiesCountAsc(int size, int offset, boolean withTotal);
+
+    @Query("""
+        SELECT bc.id_bootcamp AS bootcampId, bc.capabilities_count AS capabilitiesCount
+        FROM bootcamp_capabilities_count bc
+        WHERE (bc.capabilities_count, bc.id_bootcamp) < (:lastCount, :lastBootcampId)
+        ORDER BY bc.capabilities_count DESC, bc.id_bootcamp DESC
+        LIMIT :size
     """)
-    Flux<BootcampCountProjection> findBootcampIdsOrderByCapabilitiesCountAsc(int size, int offset);
+    Flux<BootcampCountProjection> findBootcampIdsOrderByCapabilitiesCountDescAfter(Long lastCount, Long lastBootcampId, int size);
 
     @Query("""
-        SELECT cp.id, cp.name, cp.description
-        FROM capabilities cp
-        INNER JOIN capacity_bootcamp cb
-        ON cb.id_capacity = cp.id
-        WHERE cb.id_bootcamp = :bootcampId
+        SELECT bc.id_bootcamp AS bootcampId, bc.capabilities_count AS capabilitiesCount
+        FROM bootcamp_capabilities_count bc
+        WHERE (bc.capabilities_count, bc.id_bootcamp) > (:lastCount, :lastBootcampId)
+        ORDER BY bc.capabilities_count ASC, bc.id_bootcamp ASC
+        LIMIT :size
     """)
-    Flux<CapacityEntity> findCapabilitiesByBootcampId(Long bootcampId);
+    Flux<BootcampCountProjection> findBootcampIdsOrderByCapabilitiesCountAscAfter(Long lastCount, Long lastBootcampId, int size);
 }
@@ -0,0 +1,67 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository;
+
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.TechnologyOutboxEntity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.OutboxBacklogProjection;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+
+@Repository
+public interface TechnologyOutboxRepository extends ReactiveCrudRepository<TechnologyOutboxEntity, Long> {
+
+	@Modifying
+	@Query("""
+        INSERT INTO technology_outbox (operation, idempotency_key, capacity_id, payload)
+        VALUES (:operation, :idempotencyKey, :capacityId, :payload)
+        ON CONFLICT (idempotency_key) DO NOTHING
+    """)
+	Mono<Integer> enqueue(String operation, String idempotencyKey, Long capacityId, String payload);
+
+	@Modifying
+	@Query("""
+        INSERT INTO technology_outbox (operation, idempotency_key, capacity_id, payload)
+        SELECT :operation, * FROM UNNEST(ARRAY[:idempotencyKeys]::VARCHAR[], ARRAY[:capacityIds]::BIGINT[], ARRAY[:payloads]::TEXT[])
+        ON CONFLICT (idempotency_key) DO NOTHING
+    """)
+	Mono<Integer> enqueueAll(String operation, List<String> idempotencyKeys, List<Long> capacityIds, List<String> payloads);
+
+	@Query("""
+        UPDATE technology_outbox
+        SET next_attempt_at = now() + make_interval(secs => :leaseSeconds)
+        WHERE id IN (
+            SELECT id
+            FROM technology_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= now()
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id, operation, idempotency_key, capacity_id, payload, attempts, created_at
+    """)
+	Flux<TechnologyOutboxEntity> claimPending(Integer limit, Long leaseSeconds);
+
+	@Modifying
+	@Query("""
+        UPDATE technology_outbox
+        SET attempts = :attempts,
+            status = :status,
+            next_attempt_at = now() + make_interval(secs => :backoffSeconds),
+            last_error = :lastError
+        WHERE id = :id
+    """)
+	Mono<Integer> markFailed(Long id, Integer attempts, String status, Long backoffSeconds, String lastError);
+
+	@Query("""
+        SELECT COUNT(*) FILTER (WHERE status = 'PENDING') AS pending,
+            COUNT(*) FILTER (WHERE status = 'FAILED') AS failed,
+            MIN(created_at) FILTER (WHERE status = 'PENDING') AS oldestPendingAt
+        FROM technology_outbox
+    """)
+	Mono<OutboxBacklogProjection> backlog();
+}
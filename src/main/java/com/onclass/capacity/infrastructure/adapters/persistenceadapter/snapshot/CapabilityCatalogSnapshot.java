@@ -0,0 +1,166 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot;
+
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.spi.CapacityBasicItem;
+import com.onclass.capacity.domain.model.spi.RankedBootcamp;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.CapacityBootcampEntity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the capability catalog with the indexes the list queries need. Capabilities keep
+ * the order the database returned them in, so name pages follow the database collation exactly;
+ * bootcamps are sorted by (stored capabilities count, bootcamp id), the same key the database ranks
+ * and the bootcamp cursor resumes on. Descending pages walk the same indexes
+ * backwards. A new snapshot is built on every refresh and swapped in whole.
+ */
+final class CapabilityCatalogSnapshot {
+
+    private static final Comparator<RankedBootcamp> BOOTCAMP_RANK =
+        Comparator.comparing(RankedBootcamp::capabilitiesCount)
+            .thenComparing(RankedBootcamp::id);
+
+    private final List<Capacity> capabilitiesByName;
+    private final Map<Long, Integer> namePositions;
+    private final Map<Long, Capacity> capabilitiesById;
+    private final List<RankedBootcamp> bootcampsByCount;
+    private final int countedBootcamps;
+    private final Instant loadedAt;
+
+    private CapabilityCatalogSnapshot(List<Capacity> capabilitiesByName, Map<Long, Integer> namePositions,
+                                      Map<Long, Capacity> capabilitiesById,
+                                      List<RankedBootcamp> bootcampsByCount, int countedBootcamps, Instant loadedAt) {
+        this.capabilitiesByName = capabilitiesByName;
+        this.namePositions = namePositions;
+        this.capabilitiesById = capabilitiesById;
+        this.bootcampsByCount = bootcampsByCount;
+        this.countedBootcamps = countedBootcamps;
+        this.loadedAt = loadedAt;
+    }
+
+    static CapabilityCatalogSnapshot of(List<Capacity> capabilitiesByName, List<CapacityBootcampEntity> assignations,
+                                        Map<Long, Long> capabilitiesCounts, Instant loadedAt) {
+        Map<Long, Integer> namePositions = new HashMap<>(capabilitiesByName.size() * 2);
+        Map<Long, Capacity> capabilitiesById = new HashMap<>(capabilitiesByName.size() * 2);
+        for (int position = 0; position < capabilitiesByName.size(); position++) {
+            Capacity capacity = capabilitiesByName.get(position);
+            namePositions.put(capacity.id(), position);
+            capabilitiesById.put(capacity.id(), capacity);
+        }
+        List<RankedBootcamp> bootcampsByCount = assignations.stream()
+            .filter(assignation -> capabilitiesById.containsKey(assignation.getCapacityId()))
+            .filter(assignation -> capabilitiesCounts.containsKey(assignation.getBootcampId()))
+            .collect(Collectors.groupingBy(CapacityBootcampEntity::getBootcampId,
+                Collectors.mapping(CapacityBootcampEntity::getCapacityId, Collectors.toList())))
+            .entrySet().stream()
+            .map(bootcamp -> new RankedBootcamp(bootcamp.getKey(), capabilitiesCounts.get(bootcamp.getKey()), bootcamp.getValue().stream()
+                .sorted()
+                .map(capacityId -> new CapacityBasicItem(capacityId, capabilitiesById.get(capacityId).name()))
+                .toList()))
+            .sorted(BOOTCAMP_RANK)
+            .toList();
+        return new CapabilityCatalogSnapshot(List.copyOf(capabilitiesByName), namePositions, capabilitiesById,
+            bootcampsByCount, capabilitiesCounts.size(), loadedAt);
+    }
+
+    List<Capacity> pageByName(boolean descending, int offset, int size) {
+        return page(capabilitiesByName, descending, offset, size);
+    }
+
+    /**
+     * Page right after the given capacity, or empty when that capacity is no longer in the snapshot
+     * (deleted or renamed), in which case the caller has to ask the database.
+     */
+    Optional<List<Capacity>> pageByNameAfter(boolean descending, String lastName, Long lastId, int size) {
+        Integer position = namePositions.get(lastId);
+        if (position == null || !capabilitiesByName.get(position).name().equals(lastName)) {
+            return Optional.empty();
+        }
+        int offset = descending ? capabilitiesByName.size() - position : position + 1;
+        return Optional.of(page(capabilitiesByName, descending, offset, size));
+    }
+
+    List<Capacity> findAllByIds(List<Long> capabilitiesIds) {
+        return capabilitiesIds.stream()
+            .distinct()
+            .map(capabilitiesById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    List<RankedBootcamp> pageByBootcampCount(boolean descending, int offset, int size) {
+        return page(bootcampsByCount, descending, offset, size);
+    }
+
+    List<RankedBootcamp> pageByBootcampCountAfter(boolean descending, long lastCount, long lastBootcampId, int size) {
+        int offset = descending
+            ? bootcampsByCount.size() - countRankedBefore(lastCount, lastBootcampId, false)
+            : countRankedBefore(lastCount, lastBootcampId, true);
+        return page(bootcampsByCount, descending, offset, size);
+    }
+
+    int capabilitiesCount() {
+        return capabilitiesByName.size();
+    }
+
+    int bootcampsCount() {
+        return bootcampsByCount.size();
+    }
+
+    /**
+     * Rows of the counter table, which is what the database counts as the ranking total.
+     */
+    int countedBootcamps() {
+        return countedBootcamps;
+    }
+
+    Instant loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Number of bootcamps ranked before (count, bootcampId), including an equal one when asked to.
+     */
+    private int countRankedBefore(long count, long bootcampId, boolean includeEqual) {
+        int low = 0;
+        int high = bootcampsByCount.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            RankedBootcamp bootcamp = bootcampsByCount.get(middle);
+            int comparison = Long.compare(bootcamp.capabilitiesCount(), count);
+            if (comparison == 0) {
+                comparison = Long.compare(bootcamp.id(), bootcampId);
+            }
+            if (comparison < 0 || (includeEqual && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static <T> List<T> page(List<T> sorted, boolean descending, int offset, int size) {
+        int total = sorted.size();
+        if (offset < 0 || offset >= total || size <= 0) {
+            return List.of();
+        }
+        int end = Math.min(total, offset + size);
+        if (!descending) {
+            return sorted.subList(offset, end);
+        }
+        List<T> page = new ArrayList<>(end - offset);
+        for (int index = offset; index < end; index++) {
+            page.add(sorted.get(total - 1 - index));
+        }
+        return page;
+    }
+}
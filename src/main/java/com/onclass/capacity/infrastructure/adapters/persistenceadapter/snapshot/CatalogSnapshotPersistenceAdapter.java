@@ -0,0 +1,399 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot;
+
+import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.model.BootcampCountDrift;
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.CapacitySearchHit;
+import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
+import com.onclass.capacity.domain.model.spi.RankedBootcamp;
+import com.onclass.capacity.domain.model.spi.RankedBootcampPage;
+import com.onclass.capacity.domain.spi.CapacityPersistencePort;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.projection.BootcampCountProjection;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityBootcampRepository;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.CATALOG_CHANGED;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.CATALOG_CHANNEL;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.CATALOG_LISTENER_CLOSED;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.LOG_CATALOG_LISTENER_FAILED;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.LOG_CATALOG_SNAPSHOT_FAILED;
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.LOG_CATALOG_SNAPSHOT_LOADED;
+
+/**
+ * Serves the name listing, the lookups by id and the bootcamp ranking from an in-process
+ * {@link CapabilityCatalogSnapshot}; every other call goes to the wrapped port. Triggers on
+ * {@code capabilities} and {@code capacity_bootcamp} NOTIFY {@code capacity_catalog} on commit, and
+ * each notification (bursts collapse into one) reloads the catalog in a repeatable read transaction
+ * and swaps the new snapshot in. Reads go to the database until the first load,
+ * and again whenever the listener connection is lost, so a missed notification cannot leave a stale
+ * snapshot in use. A reload only swaps its snapshot in if the listener is connected and has not been
+ * lost since the reload started. Lookups by id fall through to the database when the snapshot misses
+ * an id, and the existence check of the write path never reads the snapshot.
+ */
+@Slf4j
+public class CatalogSnapshotPersistenceAdapter implements CapacityPersistencePort {
+
+    private final CapacityPersistencePort capacityPersistencePort;
+    private final CapacityRepository capacityRepository;
+    private final CapacityBootcampRepository capacityBootcampRepository;
+    private final CapacityEntityMapper capacityEntityMapper;
+    private final ConnectionFactory connectionFactory;
+    private final TransactionalOperator snapshotTransaction;
+    private final CatalogSnapshotProperties properties;
+    private final AtomicReference<CapabilityCatalogSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong listenerGeneration = new AtomicLong();
+    private final Object swapLock = new Object();
+    private volatile boolean listening;
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder snapshotReads = new LongAdder();
+    private final LongAdder databaseReads = new LongAdder();
+    private Disposable refreshing;
+
+    public CatalogSnapshotPersistenceAdapter(CapacityPersistencePort capacityPersistencePort,
+                                             CapacityRepository capacityRepository,
+                                             CapacityBootcampRepository capacityBootcampRepository,
+                                             CapacityEntityMapper capacityEntityMapper,
+                                             ConnectionFactory connectionFactory,
+                                             TransactionalOperator snapshotTransaction,
+                                             CatalogSnapshotProperties properties) {
+        this.capacityPersistencePort = capacityPersistencePort;
+        this.capacityRepository = capacityRepository;
+        this.capacityBootcampRepository = capacityBootcampRepository;
+        this.capacityEntityMapper = capacityEntityMapper;
+        this.connectionFactory = connectionFactory;
+        this.snapshotTransaction = snapshotTransaction;
+        this.properties = properties;
+    }
+
+    public synchronized void start() {
+        if (refreshing != null && !refreshing.isDisposed()) {
+            return;
+        }
+        refreshing = Flux.merge(
+                listen(),
+                Flux.interval(properties.getResyncInterval(), properties.getResyncInterval()).map(tick -> CATALOG_CHANGED))
+            .onBackpressureLatest()
+            .concatMap(change -> reload(), 1)
+            .subscribe();
+    }
+
+    public synchronized void close() {
+        if (refreshing != null) {
+            refreshing.dispose();
+        }
+        listenerLost();
+    }
+
+    public int capabilitiesCount() {
+        CapabilityCatalogSnapshot current = snapshot.get();
+        return current == null ? 0 : current.capabilitiesCount();
+    }
+
+    public int bootcampsCount() {
+        CapabilityCatalogSnapshot current = snapshot.get();
+        return current == null ? 0 : current.bootcampsCount();
+    }
+
+    public double ageSeconds() {
+        CapabilityCatalogSnapshot current = snapshot.get();
+        return current == null ? 0 : Duration.between(current.loadedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    public long snapshotReads() {
+        return snapshotReads.sum();
+    }
+
+    public long databaseReads() {
+        return databaseReads.sum();
+    }
+
+    @Override
+    public Flux<Capacity> findPaginatedAndSortByName(String order, Integer size, Integer page) {
+        return Flux.defer(() -> {
+            CapabilityCatalogSnapshot current = snapshot.get();
+            if (current == null) {
+                databaseReads.increment();
+                return capacityPersistencePort.findPaginatedAndSortByName(order, size, page);
+            }
+            snapshotReads.increment();
+            return Flux.fromIterable(current.pageByName(isDescending(order), page * size, size));
+        });
+    }
+
+    @Override
+    public Flux<Capacity> findSortByNameAfter(String order, Integer size, String lastName, Long lastId) {
+        if (Objects.isNull(lastName) || Objects.isNull(lastId)){
+            return findPaginatedAndSortByName(order, size, 0);
+        }
+        return Flux.defer(() -> Mono.justOrEmpty(snapshot.get())
+            .flatMap(current -> Mono.justOrEmpty(current.pageByNameAfter(isDescending(order), lastName, lastId, size)))
+            .doOnNext(capabilities -> snapshotReads.increment())
+            .flatMapMany(Flux::fromIterable)
+            .switchIfEmpty(Flux.defer(() -> {
+                databaseReads.increment();
+                return capacityPersistencePort.findSortByNameAfter(order, size, lastName, lastId);
+            })));
+    }
+
+    @Override
+    public Flux<Capacity> findAllByIds(List<Long> capabilitiesIds) {
+        return Flux.defer(() -> {
+            CapabilityCatalogSnapshot current = snapshot.get();
+            if (current == null) {
+                databaseReads.increment();
+                return capacityPersistencePort.findAllByIds(capabilitiesIds);
+            }
+            List<Capacity> capabilities = current.findAllByIds(capabilitiesIds);
+            if (capabilities.size() < capabilitiesIds.stream().distinct().count()) {
+                databaseReads.increment();
+                return capacityPersistencePort.findAllByIds(capabilitiesIds);
+            }
+            snapshotReads.increment();
+            return Flux.fromIterable(capabilities);
+        });
+    }
+
+    @Override
+    public Mono<Long> countExistingCapabilities(List<Long> capabilitiesIds) {
+        return capacityPersistencePort.countExistingCapabilities(capabilitiesIds);
+    }
+
+    @Override
+    public Mono<RankedBootcampPage> findPaginatedAndSortByBootcampNumber(String order, Integer size, Integer page, boolean withTotal) {
+        return Mono.defer(() -> {
+            CapabilityCatalogSnapshot current = snapshot.get();
+            if (current == null) {
+                databaseReads.increment();
+                return capacityPersistencePort.findPaginatedAndSortByBootcampNumber(order, size, page, withTotal);
+            }
+            snapshotReads.increment();
+            return Mono.just(new RankedBootcampPage(
+                current.pageByBootcampCount(isDescending(order), page * size, size),
+                withTotal ? (long) current.countedBootcamps() : null));
+        });
+    }
+
+    @Override
+    public Flux<RankedBootcamp> findSortByBootcampNumberAfter(String order, Integer size, Long lastCount, Long lastBootcampId) {
+        if (Objects.isNull(lastCount) || Objects.isNull(lastBootcampId)){
+            return findPaginatedAndSortByBootcampNumber(order, size, 0, false)
+                .flatMapIterable(RankedBootcampPage::bootcamps);
+        }
+        return Flux.defer(() -> {
+            CapabilityCatalogSnapshot current = snapshot.get();
+            if (current == null) {
+                databaseReads.increment();
+                return capacityPersistencePort.findSortByBootcampNumberAfter(order, size, lastCount, lastBootcampId);
+            }
+            snapshotReads.increment();
+            return Flux.fromIterable(current.pageByBootcampCountAfter(isDescending(order), lastCount, lastBootcampId, size));
+        });
+    }
+
+    @Override
+    public Mono<Capacity> insertIfAbsent(Capacity capacity) {
+        return capacityPersistencePort.insertIfAbsent(capacity);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(List<String> names) {
+        return capacityPersistencePort.findExistingNames(names);
+    }
+
+    @Override
+    public Flux<Capacity> insertAll(List<Capacity> capabilities) {
+        return capacityPersistencePort.insertAll(capabilities);
+    }
+
+    @Override
+    public Flux<CapacitySearchHit> searchByText(String text, Integer size, Float lastScore, Long lastId) {
+        return capacityPersistencePort.searchByText(text, size, lastScore, lastId);
+    }
+
+    @Override
+    public Mono<Long> countCapabilities() {
+        return capacityPersistencePort.countCapabilities();
+    }
+
+    @Override
+    public Mono<Long> estimateCapabilities() {
+        return capacityPersistencePort.estimateCapabilities();
+    }
+
+    @Override
+    public Mono<Void> assignCapabilitiesToBootcamp(Long bootcampId, List<Long> capacityIds) {
+        return capacityPersistencePort.assignCapabilitiesToBootcamp(bootcampId, capacityIds);
+    }
+
+    @Override
+    public Flux<CapabilitiesBasicPerBootcamp> findCapabilitiesByBootcampsIds(List<Long> bootcampsIds) {
+        return capacityPersistencePort.findCapabilitiesByBootcampsIds(bootcampsIds);
+    }
+
+    @Override
+    public Flux<CapabilitiesBasicPerBootcamp> streamCapabilitiesByBootcampsIds(List<Long> bootcampsIds) {
+        return capacityPersistencePort.streamCapabilitiesByBootcampsIds(bootcampsIds);
+    }
+
+    @Override
+    public Mono<Long> countCapabilitiesPerBootcamps() {
+        return capacityPersistencePort.countCapabilitiesPerBootcamps();
+    }
+
+    @Override
+    public Mono<Long> estimateCapabilitiesPerBootcamps() {
+        return capacityPersistencePort.estimateCapabilitiesPerBootcamps();
+    }
+
+    @Override
+    public Mono<Void> deleteAllCapabilities(List<Long> capabilitiesIds) {
+        return capacityPersistencePort.deleteAllCapabilities(capabilitiesIds);
+    }
+
+    @Override
+    public Mono<Void> deleteCapabilitiesAndAssignations(List<Long> capabilitiesIds) {
+        return capacityPersistencePort.deleteCapabilitiesAndAssignations(capabilitiesIds);
+    }
+
+    @Override
+    public Mono<Void> deleteAllAssignations(Long bootcampId) {
+        return capacityPersistencePort.deleteAllAssignations(bootcampId);
+    }
+
+    @Override
+    public Flux<Long> findExclusiveCapabilitiesIds(Long bootcampId) {
+        return capacityPersistencePort.findExclusiveCapabilitiesIds(bootcampId);
+    }
+
+    @Override
+    public Flux<BootcampCountDrift> findCapabilitiesCountDrift(int limit) {
+        return capacityPersistencePort.findCapabilitiesCountDrift(limit);
+    }
+
+    @Override
+    public Mono<Integer> rebuildCapabilitiesCount() {
+        return capacityPersistencePort.rebuildCapabilitiesCount();
+    }
+
+    /**
+     * Holds one connection with LISTEN on the catalog channel. Emits once right after LISTEN succeeds,
+     * so every (re)connection is followed by a full reload, then once per notification. The connection
+     * closing is treated as a failure, so it is reopened like any other one.
+     */
+    private Flux<String> listen() {
+        return Flux.usingWhen(
+                Mono.from(connectionFactory.create()),
+                connection -> {
+                    PostgresqlConnection postgresqlConnection = unwrap(connection);
+                    return postgresqlConnection.createStatement("LISTEN " + CATALOG_CHANNEL)
+                        .execute()
+                        .flatMap(PostgresqlResult::getRowsUpdated)
+                        .then(Mono.fromRunnable(this::listenerConnected))
+                        .thenMany(postgresqlConnection.getNotifications()
+                            .map(notification -> CATALOG_CHANGED)
+                            .startWith(CATALOG_CHANGED))
+                        .concatWith(Mono.error(() -> new IllegalStateException(CATALOG_LISTENER_CLOSED)));
+                },
+                Connection::close)
+            .doOnError(ex -> {
+                listenerLost();
+                log.warn(LOG_CATALOG_LISTENER_FAILED, ex.getMessage());
+            })
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectBackoff())
+                .maxBackoff(properties.getMaxReconnectBackoff()));
+    }
+
+    private void listenerConnected() {
+        synchronized (swapLock) {
+            listening = true;
+            listenerGeneration.incrementAndGet();
+        }
+    }
+
+    private void listenerLost() {
+        synchronized (swapLock) {
+            listening = false;
+            listenerGeneration.incrementAndGet();
+            snapshot.set(null);
+        }
+    }
+
+    /**
+     * Swaps the loaded snapshot in unless the listener was lost or reconnected while it was loading, in
+     * which case notifications may have been missed and the snapshot can already be stale.
+     */
+    private boolean swap(CapabilityCatalogSnapshot loaded, long generation) {
+        synchronized (swapLock) {
+            if (!listening || listenerGeneration.get() != generation) {
+                return false;
+            }
+            snapshot.set(loaded);
+            return true;
+        }
+    }
+
+    private Mono<Void> reload() {
+        return Mono.defer(() -> {
+            long generation = listenerGeneration.get();
+            long start = System.nanoTime();
+            return capacityRepository.findAllSortByName()
+                .map(capacityEntityMapper::toModel)
+                .collectList()
+                .flatMap(capabilities -> capacityBootcampRepository.findAll()
+                    .collectList()
+                    .zipWith(capacityBootcampRepository.findAllCapabilitiesCounts()
+                        .collectMap(BootcampCountProjection::getBootcampId, BootcampCountProjection::getCapabilitiesCount))
+                    .map(catalog -> CapabilityCatalogSnapshot.of(capabilities, catalog.getT1(), catalog.getT2(), Instant.now())))
+                .as(snapshotTransaction::transactional)
+                .filter(loaded -> swap(loaded, generation))
+                .doOnNext(loaded -> {
+                    refreshes.increment();
+                    log.debug(LOG_CATALOG_SNAPSHOT_LOADED, loaded.capabilitiesCount(), loaded.bootcampsCount(),
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+                })
+                .then();
+        }).onErrorResume(ex -> {
+            log.warn(LOG_CATALOG_SNAPSHOT_FAILED, ex.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    private boolean isDescending(String order) {
+        return order.equals(OrderList.DESCENDANT.getMessage());
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgresqlConnection) {
+            return postgresqlConnection;
+        }
+        throw new IllegalStateException("LISTEN needs a Postgres connection, got " + connection.getClass().getName());
+    }
+}
@@ -0,0 +1,17 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("capacity.catalog-snapshot")
+public class CatalogSnapshotProperties {
+    private boolean enabled;
+    private Duration resyncInterval = Duration.ofMinutes(5);
+    private Duration reconnectBackoff = Duration.ofSeconds(1);
+    private Duration maxReconnectBackoff = Duration.ofSeconds(30);
+}
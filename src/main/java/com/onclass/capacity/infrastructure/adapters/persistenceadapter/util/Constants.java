@@ -0,0 +1,18 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.util;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class Constants {
+    public final int ASSIGNATIONS_BATCH_SIZE = 500;
+    public final int SEARCH_MAX_CANDIDATES = 1000;
+    public final int OUTBOX_ERROR_MAX_LENGTH = 255;
+    public final String OUTBOX_STATUS_PENDING = "PENDING";
+    public final String OUTBOX_STATUS_FAILED = "FAILED";
+    public final String CATALOG_CHANNEL = "capacity_catalog";
+    public final String CATALOG_CHANGED = "changed";
+    public final String CATALOG_LISTENER_CLOSED = "Catalog listener connection closed";
+    public final String LOG_CATALOG_SNAPSHOT_LOADED = "Capability catalog snapshot loaded: capabilities={} bootcamps={} durationMs={}";
+    public final String LOG_CATALOG_SNAPSHOT_FAILED = "Capability catalog snapshot refresh failed, keeping the previous one: {}";
+    public final String LOG_CATALOG_LISTENER_FAILED = "Capability catalog listener lost, serving from the database until it reconnects: {}";
+}
@@ -0,0 +1,103 @@
+package com.onclass.capacity.infrastructure.adapters.technologiesadapter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
+import com.onclass.capacity.infrastructure.entrypoints.util.ResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.TECHNOLOGIES_CACHE_NAME;
+
+/**
+ * Read-through cache of the technologies per capacity id in front of {@link TechnologyMngrAdapter}.
+ * Only the ids missing from the cache are requested upstream, and concurrent misses on the same id
+ * share a single upstream call. Ids technology-mngr returns nothing for are cached with no technologies,
+ * so capabilities without technologies do not go upstream on every read. Entries are evicted through {@link #evictTechnologies(List)} by every
+ * write path: capacity registrations and deletions once committed, and each outbox delivery once the
+ * upstream call has settled.
+ */
+@Primary
+@Component
+public class CachedTechnologyMngrAdapter implements TechnologiesGateway {
+
+    private final TechnologyMngrAdapter technologyMngrAdapter;
+    private final AsyncCache<Long, CapacityTechnologies> technologiesCache;
+
+    public CachedTechnologyMngrAdapter(TechnologyMngrAdapter technologyMngrAdapter,
+                                       TechnologyMngrProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.technologyMngrAdapter = technologyMngrAdapter;
+        this.technologiesCache = Caffeine.newBuilder()
+            .maximumSize(properties.getCache().getMaxSize())
+            .expireAfterWrite(properties.getCache().getTtl())
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, technologiesCache, TECHNOLOGIES_CACHE_NAME);
+    }
+
+    @Override
+    public Mono<ResponseDTO> assignTechnologiesToCapacity(Long capacityId, List<Long> technologiesIds, String idempotencyKey) {
+        return technologyMngrAdapter.assignTechnologiesToCapacity(capacityId, technologiesIds, idempotencyKey);
+    }
+
+    @Override
+    public Mono<List<CapacityTechnologies>> getTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds) {
+        List<Long> requestedIds = capabilitiesIds.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (requestedIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return Mono.fromFuture(() -> technologiesCache.getAll(requestedIds, (missingIds, executor) -> loadMissing(missingIds)), true)
+            .map(cachedTechnologies -> requestedIds.stream()
+                .map(cachedTechnologies::get)
+                .toList());
+    }
+
+    @Override
+    public Mono<CustomPage<CapacityTechnologies>> getSortTechnologiesByCapabilities(String order, Integer size, Integer page) {
+        return technologyMngrAdapter.getSortTechnologiesByCapabilities(order, size, page);
+    }
+
+    @Override
+    public Mono<Void> deleteTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds, String idempotencyKey) {
+        return technologyMngrAdapter.deleteTechnologiesByCapabilitiesIds(capabilitiesIds, idempotencyKey);
+    }
+
+    @Override
+    public Mono<Void> evictTechnologies(List<Long> capabilitiesIds) {
+        return Mono.fromRunnable(() ->
+            technologiesCache.synchronous().invalidateAll(capabilitiesIds.stream().filter(Objects::nonNull).toList()));
+    }
+
+    private CompletableFuture<Map<Long, CapacityTechnologies>> loadMissing(Set<? extends Long> missingIds) {
+        return technologyMngrAdapter.getTechnologiesByCapabilitiesIds(new ArrayList<>(missingIds))
+            .defaultIfEmpty(List.of())
+            .map(capacityTechnologies -> {
+                Map<Long, CapacityTechnologies> loaded = capacityTechnologies.stream()
+                    .filter(item -> Objects.nonNull(item.id()))
+                    .collect(Collectors.toMap(CapacityTechnologies::id, Function.identity(), (first, second) -> first, HashMap::new));
+                missingIds.forEach(id -> loaded.putIfAbsent(id, new CapacityTechnologies(id, List.of())));
+                return loaded;
+            })
+            .toFuture();
+    }
+}
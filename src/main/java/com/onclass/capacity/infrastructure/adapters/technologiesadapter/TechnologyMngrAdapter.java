@@ -2,18 +2,22 @@ package com.onclass.capacity.infrastructure.adapters.technologiesadapter;
 
 import com.onclass.capacity.domain.enums.TechnicalMessage;
 import com.onclass.capacity.domain.exceptions.BusinessException;
+import com.onclass.capacity.domain.exceptions.ServiceUnavailableException;
 import com.onclass.capacity.domain.exceptions.TechnicalException;
 import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
 import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.utilities.AdaptiveConcurrencyLimiter;
 import com.onclass.capacity.domain.utilities.CustomPage;
+import com.onclass.capacity.domain.utilities.ReactiveBulkhead;
 import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
 import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.request.TechnologyAssign;
 import com.onclass.capacity.infrastructure.entrypoints.util.Constants;
 import com.onclass.capacity.infrastructure.entrypoints.util.ResponseDTO;
-import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.reactor.retry.RetryOperator;
 import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
@@ -22,9 +26,11 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.*;
@@ -37,7 +43,11 @@ public class TechnologyMngrAdapter implements TechnologiesGateway {
     private final WebClient webClient;
     private final TechnologyMngrProperties emailValidatorProperties;
     private final Retry retry;
-    private final Bulkhead bulkhead;
+    private final ReactiveBulkhead bulkhead;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final TechnologyMngrCallLogger callLogger;
+    private final TechnologyMngrHedging hedging;
 
     private Mono<Throwable> buildErrorResponse(ClientResponse response, TechnicalMessage technicalMessage) {
         return response.bodyToMono(String.class)
@@ -53,29 +63,36 @@ public class TechnologyMngrAdapter implements TechnologiesGateway {
 
     @Override
     @CircuitBreaker(name = "technologyMngr", fallbackMethod = "fallback")
-    public Mono<ResponseDTO> assignTechnologiesToCapacity(Long capacityId, List<Long> technologiesIds) {
-        log.info(LOG_START_ASSIGN_TECHNOLOGIES, technologiesIds, capacityId);
+    public Mono<ResponseDTO> assignTechnologiesToCapacity(Long capacityId, List<Long> technologiesIds, String idempotencyKey) {
         TechnologyAssign requestBody = new TechnologyAssign(capacityId, technologiesIds);
         return webClient.post()
             .uri(uriBuilder -> uriBuilder
                     .path(TECHNOLOGY_MNGR_PATH_ASSIGN)
                     .build())
             .header(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON)
+            .header(HEADER_IDEMPOTENCY_KEY, idempotencyKey)
             .bodyValue(requestBody)
             .retrieve()
             .onStatus(HttpStatusCode::is4xxClientError, response -> buildErrorResponse(response, TechnicalMessage.TECHNOLOGIES_NOT_FOUND))
             .onStatus(HttpStatusCode::is5xxServerError, response -> buildErrorResponse(response, TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))
             .bodyToMono(ResponseDTO.class)
-            .doOnNext(response -> log.info(LOG_API_RESPONSE, response))
-            .doOnSuccess(response -> log.info("Completed assign technologies in capacity"))
             .transformDeferred(RetryOperator.of(retry))
-            .transformDeferred(mono -> Mono.defer(() -> bulkhead.executeSupplier(() -> mono)))
+            .transform(bulkhead::execute)
+            .transform(limiter::execute)
+            .transform(mono -> callLogger.logCall(mono, OPERATION_ASSIGN_TECHNOLOGIES, technologiesIds.size(), response -> 1))
             .doOnError(error -> log.error(ERROR_LOG_CAPACITY_MNGR, error.getMessage()));
     }
 
     @Override
     public Mono<List<CapacityTechnologies>> getTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds) {
-        log.info(LOG_START_GET_TECHNOLOGIES_BY_CAPABILITIES_IDS, capabilitiesIds);
+        return Flux.fromIterable(capabilitiesIds)
+            .buffer(emailValidatorProperties.getIdsWindowSize())
+            .flatMapSequential(this::getTechnologiesByCapabilitiesIdsWindow, limiter.getLimit())
+            .flatMapIterable(Function.identity())
+            .collectList();
+    }
+
+    private Mono<List<CapacityTechnologies>> getTechnologiesByCapabilitiesIdsWindow(List<Long> capabilitiesIds) {
         String idsParam = capabilitiesIds.stream()
                                  .map(String::valueOf)
                                  .collect(Collectors.joining(","));
@@ -89,20 +106,28 @@ public class TechnologyMngrAdapter implements TechnologiesGateway {
             .onStatus(HttpStatusCode::is4xxClientError, response -> buildErrorResponse(response, TechnicalMessage.TECHNOLOGIES_NOT_FOUND))
             .onStatus(HttpStatusCode::is5xxServerError, response -> buildErrorResponse(response, TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))
             .bodyToMono(new ParameterizedTypeReference<List<CapacityTechnologies>>() {})
-            .doOnNext(response -> log.info(LOG_API_RESPONSE, response))
-            .doOnSuccess(list -> log.info("Completed getting capabilities in bootcamp"))
             .transformDeferred(RetryOperator.of(retry))
-            .transformDeferred(mono ->
-                Mono.defer(() ->
-                    bulkhead.executeSupplier(() -> mono)
-                )
-            )
+            .transform(bulkhead::execute)
+            .transform(limiter::execute)
+            .transform(mono -> hedging.hedge(OPERATION_GET_TECHNOLOGIES_BY_CAPABILITIES_IDS, mono))
+            .transformDeferred(mono -> recordWindowLatency(mono, OPERATION_GET_TECHNOLOGIES_BY_CAPABILITIES_IDS))
+            .transform(mono -> callLogger.logCall(mono, OPERATION_GET_TECHNOLOGIES_BY_CAPABILITIES_IDS, capabilitiesIds.size(), List::size))
             .doOnError(error -> log.error(ERROR_LOG_CAPACITY_MNGR, error.getMessage()));
     }
 
+    private <T> Mono<T> recordWindowLatency(Mono<T> window, String operation) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return window.doFinally(signal -> sample.stop(Timer.builder(METRIC_WINDOW_LATENCY)
+                .tag(METRIC_TAG_OPERATION, operation)
+                .tag(METRIC_TAG_OUTCOME, signal.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)));
+        });
+    }
+
     @Override
     public Mono<CustomPage<CapacityTechnologies>> getSortTechnologiesByCapabilities(String order, Integer size, Integer page) {
-        log.info(LOG_START_GET_TECHNOLOGIES_PAGINATION, order, page, size);
         return webClient.get()
             .uri(uriBuilder -> uriBuilder
                 .path(TECHNOLOGY_MNGR_PATH_CAPABILITIES_SORT_BY_TECHNOLOGIES)
@@ -115,19 +140,16 @@ public class TechnologyMngrAdapter implements TechnologiesGateway {
             .onStatus(HttpStatusCode::is4xxClientError, response -> buildErrorResponse(response, TechnicalMessage.TECHNOLOGIES_NOT_FOUND))
             .onStatus(HttpStatusCode::is5xxServerError, response -> buildErrorResponse(response, TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))
             .bodyToMono(new ParameterizedTypeReference<CustomPage<CapacityTechnologies>>() {})
-            .doOnNext(response -> log.info(LOG_API_RESPONSE, response))
             .transformDeferred(RetryOperator.of(retry))
-            .transformDeferred(mono ->
-                Mono.defer(() ->
-                    bulkhead.executeSupplier(() -> mono)
-                )
-            )
+            .transform(bulkhead::execute)
+            .transform(limiter::execute)
+            .transform(mono -> hedging.hedge(OPERATION_GET_TECHNOLOGIES_PAGINATION, mono))
+            .transform(mono -> callLogger.logCall(mono, OPERATION_GET_TECHNOLOGIES_PAGINATION, size, technologiesPage -> technologiesPage.getData().size()))
             .doOnError(error -> log.error(ERROR_LOG_CAPACITY_MNGR, error.getMessage()));
     }
 
     @Override
-    public Mono<Void> deleteTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds) {
-         log.info(LOG_START_DELETE_TECHNOLOGIES_BY_CAPABILITIES_IDS, capabilitiesIds);
+    public Mono<Void> deleteTechnologiesByCapabilitiesIds(List<Long> capabilitiesIds, String idempotencyKey) {
          String idsParam = capabilitiesIds.stream()
                                  .map(String::valueOf)
                                  .collect(Collectors.joining(","));
@@ -137,21 +159,29 @@ public class TechnologyMngrAdapter implements TechnologiesGateway {
                 .queryParam(Constants.QUERY_PARAM_CAPABILITIES_IDS, idsParam)
                 .build())
             .header(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON)
+            .header(HEADER_IDEMPOTENCY_KEY, idempotencyKey)
             .retrieve()
             .onStatus(HttpStatusCode::is4xxClientError, response -> buildErrorResponse(response, TechnicalMessage.TECHNOLOGIES_NOT_FOUND))
             .onStatus(HttpStatusCode::is5xxServerError, response -> buildErrorResponse(response, TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))
             .bodyToMono(ResponseDTO.class)
-            .doOnNext(response -> log.info(LOG_API_RESPONSE, response))
-            .then()
-            .doOnSuccess(response -> log.info("Completed assign technologies in capacity"))
             .transformDeferred(RetryOperator.of(retry))
-            .transformDeferred(mono -> Mono.defer(() -> bulkhead.executeSupplier(() -> mono)))
+            .transform(bulkhead::execute)
+            .transform(limiter::execute)
+            .transform(mono -> callLogger.logCall(mono, OPERATION_DELETE_TECHNOLOGIES_BY_CAPABILITIES_IDS, capabilitiesIds.size(), response -> 1))
+            .then()
             .doOnError(error -> log.error(ERROR_LOG_CAPACITY_MNGR, error.getMessage()));
     }
 
+    @Override
+    public Mono<Void> evictTechnologies(List<Long> capabilitiesIds) {
+        return Mono.empty();
+    }
+
     public Mono<Throwable> fallback(Throwable t) {
         return Mono.defer(() ->
-                Mono.error(new TechnicalException(TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))
+                Mono.error(t instanceof ServiceUnavailableException ?
+                        t :
+                        new TechnicalException(TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))
         );
     }
 }
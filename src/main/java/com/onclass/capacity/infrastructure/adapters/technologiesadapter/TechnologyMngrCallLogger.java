@@ -0,0 +1,56 @@
+package com.onclass.capacity.infrastructure.adapters.technologiesadapter;
+
+import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.LOGGER_CALL_PAYLOAD;
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.LOGGER_CALL_SUMMARY;
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.LOG_API_RESPONSE;
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.LOG_CALL_SUMMARY;
+
+/**
+ * Logs technology-mngr calls as one summary line (requested and received counts, duration) on the
+ * {@code technology-mngr.summary} category. Response bodies are only rendered on the
+ * {@code technology-mngr.payload} category at DEBUG, and then only for a sampled fraction of calls
+ * ({@code technology-mngr.logging.payload-sample-rate}). Both levels can be changed at runtime
+ * through the loggers actuator.
+ */
+@Component
+public class TechnologyMngrCallLogger {
+
+    private static final Logger SUMMARY = LoggerFactory.getLogger(LOGGER_CALL_SUMMARY);
+    private static final Logger PAYLOAD = LoggerFactory.getLogger(LOGGER_CALL_PAYLOAD);
+
+    private final double payloadSampleRate;
+
+    public TechnologyMngrCallLogger(TechnologyMngrProperties properties) {
+        this.payloadSampleRate = properties.getLogging().getPayloadSampleRate();
+    }
+
+    public <T> Mono<T> logCall(Mono<T> call, String operation, int requested, ToIntFunction<T> received) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doOnSuccess(response -> {
+                if (SUMMARY.isInfoEnabled()) {
+                    SUMMARY.info(LOG_CALL_SUMMARY, operation, requested,
+                        response == null ? 0 : received.applyAsInt(response),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+                if (response != null && PAYLOAD.isDebugEnabled() && sampled()) {
+                    PAYLOAD.debug(LOG_API_RESPONSE, operation, response);
+                }
+            });
+        });
+    }
+
+    private boolean sampled() {
+        return payloadSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < payloadSampleRate;
+    }
+}
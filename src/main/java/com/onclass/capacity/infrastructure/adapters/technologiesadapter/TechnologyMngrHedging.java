@@ -0,0 +1,64 @@
+package com.onclass.capacity.infrastructure.adapters.technologiesadapter;
+
+import com.onclass.capacity.domain.utilities.RequestHedger;
+import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.METRIC_HEDGES;
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.METRIC_HEDGE_DELAY;
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.METRIC_TAG_OPERATION;
+import static com.onclass.capacity.infrastructure.adapters.technologiesadapter.util.Constants.METRIC_TAG_RESULT;
+
+/**
+ * Per-operation {@link RequestHedger}s for the idempotent technology-mngr reads, configured under
+ * {@code technology-mngr.hedging.<operation>}. Operations without an enabled entry are not hedged.
+ */
+@Component
+public class TechnologyMngrHedging {
+
+    private final Map<String, RequestHedger> hedgers;
+
+    public TechnologyMngrHedging(TechnologyMngrProperties properties, MeterRegistry meterRegistry) {
+        this.hedgers = properties.getHedging().entrySet().stream()
+            .filter(entry -> entry.getValue().isEnabled())
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> new RequestHedger(
+                entry.getKey(),
+                entry.getValue().getPercentile(),
+                entry.getValue().getMinDelay(),
+                entry.getValue().getMinSamples(),
+                entry.getValue().getBudgetRatio())));
+        hedgers.values().forEach(hedger -> bindMetrics(hedger, meterRegistry));
+    }
+
+    public <T> Mono<T> hedge(String operation, Mono<T> attempt) {
+        RequestHedger hedger = hedgers.get(operation);
+        return hedger == null ? attempt : hedger.execute(attempt);
+    }
+
+    private void bindMetrics(RequestHedger hedger, MeterRegistry meterRegistry) {
+        registerCounter(meterRegistry, hedger, "fired", RequestHedger::fired);
+        registerCounter(meterRegistry, hedger, "won", RequestHedger::won);
+        registerCounter(meterRegistry, hedger, "budget_exhausted", RequestHedger::budgetExhausted);
+        TimeGauge.builder(METRIC_HEDGE_DELAY, hedger, TimeUnit.NANOSECONDS, current -> current.currentDelay().toNanos())
+            .tag(METRIC_TAG_OPERATION, hedger.getName())
+            .description("Delay after which a technology-mngr call is hedged")
+            .register(meterRegistry);
+    }
+
+    private void registerCounter(MeterRegistry meterRegistry, RequestHedger hedger, String result, ToDoubleFunction<RequestHedger> count) {
+        FunctionCounter.builder(METRIC_HEDGES, hedger, count)
+            .tag(METRIC_TAG_OPERATION, hedger.getName())
+            .tag(METRIC_TAG_RESULT, result)
+            .description("Hedged technology-mngr calls")
+            .register(meterRegistry);
+    }
+}
@@ -1,6 +1,9 @@
 package com.onclass.capacity.infrastructure.adapters.technologiesadapter.config;
 
-import io.github.resilience4j.bulkhead.Bulkhead;
+import com.onclass.capacity.domain.utilities.AdaptiveConcurrencyLimiter;
+import com.onclass.capacity.domain.utilities.ReactiveBulkhead;
+import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,14 +11,43 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class BulkheadConfiguration {
 
+    private static final String BULKHEAD_NAME = "technologyMngrBulkhead";
+    private static final String LIMITER_NAME = "technologyMngrLimiter";
+
     private final BulkheadRegistry bulkheadRegistry;
 
     public BulkheadConfiguration(BulkheadRegistry bulkheadRegistry) {
         this.bulkheadRegistry = bulkheadRegistry;
     }
 
+    /**
+     * Limits and wait time still come from the resilience4j {@code technologyMngrBulkhead} instance;
+     * the queue length of waiting calls is {@code technology-mngr.bulkhead.max-queue-size}.
+     */
+    @Bean
+    public ReactiveBulkhead technologyMngrBulkhead(TechnologyMngrProperties properties) {
+        BulkheadConfig config = bulkheadRegistry.bulkhead(BULKHEAD_NAME).getBulkheadConfig();
+        return new ReactiveBulkhead(
+            BULKHEAD_NAME,
+            config.getMaxConcurrentCalls(),
+            properties.getBulkhead().getMaxQueueSize(),
+            config.getMaxWaitDuration());
+    }
+
+    /**
+     * Adaptive limit sitting in front of the bulkhead; its {@code max-limit} should not exceed the
+     * bulkhead's {@code maxConcurrentCalls}, which stays as the hard ceiling.
+     */
     @Bean
-    public Bulkhead technologyMngrBulkhead() {
-        return bulkheadRegistry.bulkhead("technologyMngrBulkhead");
+    public AdaptiveConcurrencyLimiter technologyMngrLimiter(TechnologyMngrProperties properties) {
+        TechnologyMngrProperties.Limiter limiter = properties.getLimiter();
+        return new AdaptiveConcurrencyLimiter(
+            LIMITER_NAME,
+            limiter.getInitialLimit(),
+            limiter.getMinLimit(),
+            limiter.getMaxLimit(),
+            limiter.getLatencyThreshold(),
+            limiter.getBackoffRatio(),
+            limiter.getRetryAfter());
     }
 }
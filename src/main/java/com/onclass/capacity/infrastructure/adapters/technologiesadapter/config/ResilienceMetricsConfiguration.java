@@ -0,0 +1,72 @@
+package com.onclass.capacity.infrastructure.adapters.technologiesadapter.config;
+
+import com.onclass.capacity.domain.utilities.AdaptiveConcurrencyLimiter;
+import com.onclass.capacity.domain.utilities.ReactiveBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+@Configuration
+public class ResilienceMetricsConfiguration {
+
+    private static final String CIRCUIT_BREAKER_NAME = "technologyMngr";
+
+    @Bean
+    public MeterBinder technologyMngrResilienceMetrics(ReactiveBulkhead technologyMngrBulkhead,
+                                                      AdaptiveConcurrencyLimiter technologyMngrLimiter,
+                                                      CircuitBreakerRegistry circuitBreakerRegistry) {
+        return registry -> {
+            Gauge.builder("technology.mngr.limiter.limit", technologyMngrLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", technologyMngrLimiter.getName())
+                .description("Current adaptive concurrency limit for technology-mngr calls")
+                .register(registry);
+            Gauge.builder("technology.mngr.limiter.in.flight", technologyMngrLimiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("name", technologyMngrLimiter.getName())
+                .description("technology-mngr calls currently admitted by the adaptive limiter")
+                .register(registry);
+            FunctionCounter.builder("technology.mngr.limiter.rejections", technologyMngrLimiter, AdaptiveConcurrencyLimiter::rejections)
+                .tag("name", technologyMngrLimiter.getName())
+                .description("technology-mngr calls shed by the adaptive limiter")
+                .register(registry);
+            Gauge.builder("technology.mngr.bulkhead.available.permits", technologyMngrBulkhead,
+                    bulkhead -> Math.max(0, bulkhead.getMaxConcurrentCalls() - bulkhead.inFlight()))
+                .tag("name", technologyMngrBulkhead.getName())
+                .description("Concurrent calls to technology-mngr still allowed by the bulkhead")
+                .register(registry);
+            Gauge.builder("technology.mngr.bulkhead.max.permits", technologyMngrBulkhead,
+                    ReactiveBulkhead::getMaxConcurrentCalls)
+                .tag("name", technologyMngrBulkhead.getName())
+                .description("Configured concurrent call limit of the technology-mngr bulkhead")
+                .register(registry);
+            Gauge.builder("technology.mngr.bulkhead.queue.depth", technologyMngrBulkhead, ReactiveBulkhead::queueDepth)
+                .tag("name", technologyMngrBulkhead.getName())
+                .description("Calls to technology-mngr waiting for a bulkhead permit")
+                .register(registry);
+            FunctionCounter.builder("technology.mngr.bulkhead.rejections", technologyMngrBulkhead, ReactiveBulkhead::rejections)
+                .tag("name", technologyMngrBulkhead.getName())
+                .tag("reason", "queue_full")
+                .description("Calls to technology-mngr rejected by the bulkhead")
+                .register(registry);
+            FunctionCounter.builder("technology.mngr.bulkhead.rejections", technologyMngrBulkhead, ReactiveBulkhead::timeouts)
+                .tag("name", technologyMngrBulkhead.getName())
+                .tag("reason", "wait_timeout")
+                .description("Calls to technology-mngr rejected by the bulkhead")
+                .register(registry);
+
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+            Arrays.stream(CircuitBreaker.State.values()).forEach(state ->
+                Gauge.builder("technology.mngr.circuitbreaker.state", circuitBreaker,
+                        breaker -> breaker.getState() == state ? 1 : 0)
+                    .tag("name", circuitBreaker.getName())
+                    .tag("state", state.name().toLowerCase())
+                    .description("1 for the current state of the technology-mngr circuit breaker, 0 otherwise")
+                    .register(registry));
+        };
+    }
+}
@@ -1,8 +1,7 @@
 package com.onclass.capacity.infrastructure.adapters.technologiesadapter.config;
 
 import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,37 +10,60 @@ import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 
 import static io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @Configuration
 @AllArgsConstructor
 public class TechnologyMngrConfig {
 
+    private static final String CONNECTION_POOL_NAME = "technology-mngr";
+
     private final TechnologyMngrProperties properties;
 
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ObservationRegistry observationRegistry, ConnectionProvider technologyMngrConnectionProvider) {
         return WebClient.builder()
                 .baseUrl(properties.getBaseUrl())
+                .observationRegistry(observationRegistry)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .clientConnector(getClientHttpConnector(Integer.parseInt(properties.getTimeout())))
+                .clientConnector(getClientHttpConnector(technologyMngrConnectionProvider, Integer.parseInt(properties.getTimeout())))
                 .build();
     }
 
-    private ClientHttpConnector getClientHttpConnector(int timeout) {
-        return new ReactorClientHttpConnector(HttpClient.create()
+    /**
+     * Pool used by the technology-mngr client. With {@code metrics} on, Reactor Netty publishes
+     * {@code reactor.netty.connection.provider.*} meters (active, idle, pending connections and
+     * acquire time) tagged with the pool name.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider technologyMngrConnectionProvider() {
+        TechnologyMngrProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(CONNECTION_POOL_NAME)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetrics());
+        return (pool.isLifo() ? builder.lifo() : builder.fifo()).build();
+    }
+
+    private ClientHttpConnector getClientHttpConnector(ConnectionProvider connectionProvider, int timeout) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
                 .option(CONNECT_TIMEOUT_MILLIS, timeout)
-                .doOnConnected(connection -> {
-                    connection.addHandlerLast(new ReadTimeoutHandler(timeout, MILLISECONDS));
-                    connection.addHandlerLast(new WriteTimeoutHandler(timeout, MILLISECONDS));
-                })
+                .compress(properties.isCompression())
                 // Timeout global para toda la solicitud (conexión + lectura + escritura)
-                .responseTimeout(Duration.ofMillis(timeout)));
+                .responseTimeout(Duration.ofMillis(timeout));
+        return new ReactorClientHttpConnector(properties.isH2c() ?
+                httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11) :
+                httpClient);
     }
 }
@@ -4,10 +4,70 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties("technology-mngr")
 public class TechnologyMngrProperties {
     private String baseUrl;
     private String timeout;
+    private int idsWindowSize = 200;
+    private boolean h2c;
+    private boolean compression = true;
+    private Pool pool = new Pool();
+    private Cache cache = new Cache();
+    private Logging logging = new Logging();
+    private Bulkhead bulkhead = new Bulkhead();
+    private Limiter limiter = new Limiter();
+    private Map<String, Hedging> hedging = new HashMap<>();
+
+    @Data
+    public static class Cache {
+        private long maxSize = 50_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Pool {
+        private int maxConnections = 100;
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private boolean lifo = true;
+        private boolean metrics = true;
+    }
+
+    @Data
+    public static class Logging {
+        private double payloadSampleRate = 0.01;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxQueueSize = 100;
+    }
+
+    @Data
+    public static class Limiter {
+        private int initialLimit = 5;
+        private int minLimit = 1;
+        private int maxLimit = 20;
+        private Duration latencyThreshold = Duration.ofMillis(250);
+        private double backoffRatio = 0.9;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private int minSamples = 100;
+        private double budgetRatio = 0.05;
+    }
 }
@@ -5,12 +5,15 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class Constants {
     public final String ERROR_LOG_CAPACITY_MNGR = "Error occurred in capacity mngr: {}";
-    public final String LOG_API_RESPONSE = "Received API response : {}";
+    public final String LOG_API_RESPONSE = "Received API response of {} : {}";
+    public final String LOG_CALL_SUMMARY = "technology-mngr call operation={} requested={} received={} durationMs={}";
+    public final String LOGGER_CALL_SUMMARY = "technology-mngr.summary";
+    public final String LOGGER_CALL_PAYLOAD = "technology-mngr.payload";
     public final String NO_ADITIONAL_ERROR_DETAILS = "No additional error details";
-    public final String LOG_START_ASSIGN_TECHNOLOGIES = "Starting assign technologies {} in a capacity id: {}";
-    public final String LOG_START_GET_TECHNOLOGIES_PAGINATION = "Starting get technologies with parameters order: {}, page: {}, size: {}";
-    public final String LOG_START_GET_TECHNOLOGIES_BY_CAPABILITIES_IDS = "Starting get technologies with capabilities ids : {}";
-    public final String LOG_START_DELETE_TECHNOLOGIES_BY_CAPABILITIES_IDS = "Starting to delete technologies by capabilities ids: {}";
+    public final String OPERATION_ASSIGN_TECHNOLOGIES = "assignTechnologiesToCapacity";
+    public final String OPERATION_GET_TECHNOLOGIES_BY_CAPABILITIES_IDS = "getTechnologiesByCapabilitiesIds";
+    public final String OPERATION_GET_TECHNOLOGIES_PAGINATION = "getSortTechnologiesByCapabilities";
+    public final String OPERATION_DELETE_TECHNOLOGIES_BY_CAPABILITIES_IDS = "deleteTechnologiesByCapabilitiesIds";
 
     public final String TECHNOLOGY_MNGR_PATH_ASSIGN = "/assign";
     public final String TECHNOLOGY_MNGR_PATH_GET_BY_CAPABILITIES = "/capabilities_ids";
@@ -23,5 +26,14 @@ public class Constants {
 
     public final String STRING_ERROR_BODY_DATA = "Error body: {}";
     public final String CONTENT_TYPE_JSON = "application/json";
+    public final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public final String TECHNOLOGIES_CACHE_NAME = "technologiesByCapacity";
+    public final String METRIC_WINDOW_LATENCY = "technology.mngr.window.latency";
+    public final String METRIC_TAG_OPERATION = "operation";
+    public final String METRIC_TAG_OUTCOME = "outcome";
+    public final String METRIC_TAG_RESULT = "result";
+    public final String METRIC_HEDGES = "technology.mngr.hedges";
+    public final String METRIC_HEDGE_DELAY = "technology.mngr.hedge.delay";
 
 }
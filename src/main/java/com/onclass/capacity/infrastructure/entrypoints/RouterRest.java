@@ -1,5 +1,6 @@
 package com.onclass.capacity.infrastructure.entrypoints;
 
+import com.onclass.capacity.infrastructure.entrypoints.filter.RouteMetricsFilter;
 import com.onclass.capacity.infrastructure.entrypoints.handler.CapacityHandlerImpl;
 import com.onclass.capacity.infrastructure.entrypoints.util.Constants;
 import org.springframework.context.annotation.Bean;
@@ -13,12 +14,15 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
 @Configuration
 public class RouterRest {
     @Bean
-    public RouterFunction<ServerResponse> routerFunction(CapacityHandlerImpl capacityHandler) {
+    public RouterFunction<ServerResponse> routerFunction(CapacityHandlerImpl capacityHandler, RouteMetricsFilter routeMetricsFilter) {
         return route(POST(Constants.PATH_POST_CAPABILITY), capacityHandler::createCapacity)
+            .andRoute(POST(Constants.PATH_POST_CAPABILITIES_BULK), capacityHandler::createCapabilitiesBulk)
             .andRoute(POST(Constants.PATH_POST_ASSIGN_CAPABILITIES), capacityHandler::assignCapabilities)
             .andRoute(GET(Constants.PATH_GET_ALL_CAPABILITIES), capacityHandler::getAllCapabilities)
+            .andRoute(GET(Constants.PATH_GET_SEARCH_CAPABILITIES), capacityHandler::searchCapabilities)
             .andRoute(GET(Constants.PATH_GET_CAPABILITIES_BY_BOOTCAMPS_IDS), capacityHandler::getCapabilitiesByBootcampsIds)
             .andRoute(GET(Constants.PATH_GET_CAPABILITIES_SORT_BY_BOOTCAMPS), capacityHandler::getBootcampsSortByCapabilities)
-            .andRoute(DELETE(Constants.PATH_DELETE_CAPABILITIES_BY_BOOTCAMP), capacityHandler::deleteCapabilitiesByBootcamp);
+            .andRoute(DELETE(Constants.PATH_DELETE_CAPABILITIES_BY_BOOTCAMP), capacityHandler::deleteCapabilitiesByBootcamp)
+            .filter(routeMetricsFilter);
     }
 }
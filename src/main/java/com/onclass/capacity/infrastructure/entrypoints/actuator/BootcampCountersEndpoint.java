@@ -0,0 +1,42 @@
+package com.onclass.capacity.infrastructure.entrypoints.actuator;
+
+import com.onclass.capacity.domain.api.CapacityServicePort;
+import com.onclass.capacity.infrastructure.entrypoints.dto.response.BootcampCountersDTO;
+import com.onclass.capacity.infrastructure.entrypoints.mapper.CapacityMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks the per-bootcamp capability counters against capacity_bootcamp (GET) and rebuilds them (POST)
+ * when they drifted. The rebuild locks the counter table, so concurrent assignations wait for it.
+ */
+@Component
+@Endpoint(id = "bootcampcounters")
+@RequiredArgsConstructor
+public class BootcampCountersEndpoint {
+
+    private final CapacityServicePort capacityServicePort;
+    private final CapacityMapper capacityMapper;
+
+    @ReadOperation
+    public Mono<BootcampCountersDTO> check() {
+        return capacityServicePort.findBootcampCountersDrift()
+            .map(capacityMapper::toBootcampCountDriftDTO)
+            .collectList()
+            .map(drifted -> BootcampCountersDTO.builder()
+                .consistent(drifted.isEmpty())
+                .drifted(drifted)
+                .build());
+    }
+
+    @WriteOperation
+    public Mono<BootcampCountersDTO> rebuild() {
+        return capacityServicePort.rebuildBootcampCounters()
+            .flatMap(rebuiltRows -> check()
+                .map(report -> report.toBuilder().rebuiltRows(rebuiltRows).build()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.onclass.capacity.infrastructure.entrypoints.actuator;
+
+import com.onclass.capacity.application.tracing.InMemorySpanExporter;
+import com.onclass.capacity.application.tracing.SampledTrace;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Lists the traces kept by the tail sampler, newest first, each with its critical path (GET), and clears
+ * them (DELETE).
+ */
+@Component
+@Endpoint(id = "slowtraces")
+@RequiredArgsConstructor
+public class SlowTracesEndpoint {
+
+    private final InMemorySpanExporter inMemorySpanExporter;
+
+    @ReadOperation
+    public List<SampledTrace> traces() {
+        return inMemorySpanExporter.traces();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        inMemorySpanExporter.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package com.onclass.capacity.infrastructure.entrypoints.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BootcampCountDriftDTO {
+    private Long bootcampId;
+    private Long expectedCount;
+    private Long storedCount;
+}
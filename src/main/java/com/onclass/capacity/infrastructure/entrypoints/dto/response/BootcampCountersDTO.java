@@ -0,0 +1,16 @@
+package com.onclass.capacity.infrastructure.entrypoints.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BootcampCountersDTO {
+    private Boolean consistent;
+    private List<BootcampCountDriftDTO> drifted;
+    private Integer rebuiltRows;
+}
@@ -0,0 +1,14 @@
+package com.onclass.capacity.infrastructure.entrypoints.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class CapacityRegistrationResultDTO {
+    private Long index;
+    private String name;
+    private Long id;
+    private String code;
+    private String message;
+}
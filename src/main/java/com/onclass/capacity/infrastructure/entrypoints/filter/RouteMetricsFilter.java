@@ -0,0 +1,70 @@
+package com.onclass.capacity.infrastructure.entrypoints.filter;
+
+import com.onclass.capacity.infrastructure.entrypoints.util.Constants;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Per-route observation (timer and handler span) tagged with the sort order and sort item, so the ranking
+ * and list routes can be compared per query shape. Unknown tag values collapse into {@value #TAG_NONE} to
+ * keep cardinality bounded.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteMetricsFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private static final String METRIC_ROUTE_REQUESTS = "capacity.route.requests";
+    private static final String TAG_NONE = "none";
+    private static final Set<String> SORT_VALUES = Set.of("asc", "desc");
+    private static final Set<String> PARAMETER_VALUES = Set.of("name", "technologies");
+
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        return Mono.deferContextual(contextView -> {
+            String route = request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                .map(pattern -> ((PathPattern) pattern).getPatternString())
+                .orElse(TAG_NONE);
+            Observation observation = Observation.createNotStarted(METRIC_ROUTE_REQUESTS, observationRegistry)
+                .contextualName(request.method().name() + " " + route)
+                .lowCardinalityKeyValue("route", route)
+                .lowCardinalityKeyValue("method", request.method().name())
+                .lowCardinalityKeyValue("sort", boundedTag(request, Constants.QUERY_PARAM_ORDER_SORT, SORT_VALUES))
+                .lowCardinalityKeyValue("parameter", boundedTag(request, Constants.QUERY_PARAM_ITEM_SORT, PARAMETER_VALUES))
+                .parentObservation(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                .start();
+            return Mono.defer(() -> next.handle(request))
+                .doOnSuccess(response -> observation
+                    .lowCardinalityKeyValue("status", response == null ? TAG_NONE : String.valueOf(response.statusCode().value()))
+                    .stop())
+                .doOnError(error -> observation
+                    .lowCardinalityKeyValue("status", "error")
+                    .error(error)
+                    .stop())
+                .doOnCancel(() -> observation
+                    .lowCardinalityKeyValue("status", "cancelled")
+                    .stop())
+                .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private String boundedTag(ServerRequest request, String queryParam, Set<String> allowedValues) {
+        return request.queryParam(queryParam)
+            .map(String::toLowerCase)
+            .filter(allowedValues::contains)
+            .orElse(TAG_NONE);
+    }
+}
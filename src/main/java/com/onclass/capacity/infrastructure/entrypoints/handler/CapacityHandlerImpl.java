@@ -4,38 +4,59 @@ import com.onclass.capacity.domain.api.CapacityServicePort;
 import com.onclass.capacity.domain.enums.ItemSortList;
 import com.onclass.capacity.domain.enums.OrderList;
 import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.enums.TotalsMode;
 import com.onclass.capacity.domain.exceptions.BusinessException;
+import com.onclass.capacity.domain.exceptions.InvalidFormatParamException;
+import com.onclass.capacity.domain.exceptions.ProcessorException;
+import com.onclass.capacity.domain.exceptions.ServiceUnavailableException;
 import com.onclass.capacity.domain.exceptions.TechnicalException;
+import com.onclass.capacity.domain.model.spi.CapabilitiesPerBootcamp;
 import com.onclass.capacity.infrastructure.entrypoints.dto.request.AssignCapabilitiesDTO;
 import com.onclass.capacity.infrastructure.entrypoints.dto.request.CreateCapacityDTO;
+import com.onclass.capacity.infrastructure.entrypoints.dto.response.CapacityRegistrationResultDTO;
 import com.onclass.capacity.infrastructure.entrypoints.mapper.CapacityMapper;
 import com.onclass.capacity.infrastructure.entrypoints.util.Constants;
 import com.onclass.capacity.infrastructure.entrypoints.util.ErrorDTO;
 import com.onclass.capacity.infrastructure.entrypoints.util.ResponseDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CapacityHandlerImpl {
 
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
     private final CapacityServicePort capacityServicePort;
     private final CapacityMapper capacityMapper;
+    private final MeterRegistry meterRegistry;
 
     public Mono<ServerResponse> createCapacity(ServerRequest request) {
         return request.bodyToMono(CreateCapacityDTO.class)
                 .flatMap(capacityDTO -> capacityServicePort.registerCapacity(capacityMapper.toCapacity(capacityDTO))
-                        .doOnSuccess(savedCapacity -> log.info(Constants.CAPACITY_CREATED_RS_OK))
+                        .doOnSuccess(savedCapacity -> log.debug(Constants.CAPACITY_CREATED_RS_OK))
                 )
                 .flatMap(savedCapacity -> ServerResponse
                         .status(HttpStatus.CREATED)
@@ -44,6 +65,7 @@ public class CapacityHandlerImpl {
                 .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
                         HttpStatus.CONFLICT,
                         ex.getTechnicalMessage()))
+                .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
                 .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
                         HttpStatus.INTERNAL_SERVER_ERROR,
                         ex.getTechnicalMessage()))
@@ -55,20 +77,93 @@ public class CapacityHandlerImpl {
                 });
     }
 
+    /**
+     * Accepts a JSON array or an NDJSON stream of capabilities and answers one result per item, in
+     * input order, streamed as NDJSON when the client accepts it. The status is committed before the
+     * first result, so a failure halfway is reported as a last item without id whose index is the
+     * first item that got no result.
+     */
+    public Mono<ServerResponse> createCapabilitiesBulk(ServerRequest request) {
+        MediaType responseMediaType = request.headers().accept().stream()
+            .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        Flux<CapacityRegistrationResultDTO> results = Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong items = new AtomicLong();
+            AtomicLong created = new AtomicLong();
+            return capacityServicePort.registerCapabilities(request.bodyToFlux(CreateCapacityDTO.class).map(capacityMapper::toCapacity))
+                .doOnNext(result -> {
+                    items.incrementAndGet();
+                    if (result.isCreated()) {
+                        created.incrementAndGet();
+                    }
+                    meterRegistry.counter(Constants.METRIC_BULK_ITEMS, Constants.METRIC_TAG_RESULT, result.result().name()).increment();
+                })
+                .doFinally(signal -> recordBulkThroughput(signal, start, items.get(), created.get()))
+                .map(capacityMapper::toRegistrationResultDTO)
+                .doOnError(ex -> log.error(Constants.CAPACITY_ERROR, ex))
+                .onErrorResume(ex -> Mono.just(buildRegistrationErrorResult(items.get(), ex)));
+        });
+        return ServerResponse
+            .status(HttpStatus.OK)
+            .contentType(responseMediaType)
+            .body(results, CapacityRegistrationResultDTO.class);
+    }
+
     public Mono<ServerResponse> getAllCapabilities(ServerRequest request) {
         String order = request.queryParam(Constants.QUERY_PARAM_ORDER_SORT).orElse(OrderList.ASCENDANT.getMessage());
         String itemToSort = request.queryParam(Constants.QUERY_PARAM_ITEM_SORT).orElse(ItemSortList.NAME.getMessage());
         Integer page = Integer.parseInt(request.queryParam(Constants.QUERY_PARAM_PAGE).orElse(Constants.DEFAULT_PAGE_PAGINATION));
         Integer size = Integer.parseInt(request.queryParam(Constants.QUERY_PARAM_SIZE).orElse(Constants.DEFAULT_SIZE_PAGINATION));
+        Optional<String> cursor = request.queryParam(Constants.QUERY_PARAM_CURSOR);
+        String totals = request.queryParam(Constants.QUERY_PARAM_TOTALS).orElse(Constants.DEFAULT_TOTALS_MODE);
 
-        return capacityServicePort.listCapabilities(OrderList.fromString(order.toUpperCase()),ItemSortList.fromString(itemToSort),page,size)
+        Mono<?> capabilities = Mono.defer(() -> {
+            OrderList orderList = OrderList.fromString(order.toUpperCase());
+            ItemSortList itemSort = ItemSortList.fromString(itemToSort);
+            TotalsMode totalsMode = TotalsMode.fromString(totals);
+            return cursor.isPresent()
+                ? capacityServicePort.listCapabilitiesByCursor(orderList, itemSort, cursor.get(), size)
+                : capacityServicePort.listCapabilities(orderList, itemSort, page, size, totalsMode);
+        });
+        return capabilities
                 .flatMap(pageCapabilities -> ServerResponse
                         .status(HttpStatus.CREATED)
                         .bodyValue(pageCapabilities))
                 .doOnError(ex -> log.error(Constants.CAPACITY_ERROR, ex))
+                .onErrorResume(InvalidFormatParamException.class, ex -> buildErrorResponse(
+                        HttpStatus.BAD_REQUEST,
+                        ex.getTechnicalMessage()))
                 .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
                         HttpStatus.CONFLICT,
                         ex.getTechnicalMessage()))
+                .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
+                .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        ex.getTechnicalMessage()))
+                .onErrorResume(ex -> {
+                    log.error(Constants.UNEXPECTED_ERROR, ex);
+                    return buildErrorResponse(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            TechnicalMessage.INTERNAL_ERROR);
+                });
+    }
+
+    public Mono<ServerResponse> searchCapabilities(ServerRequest request) {
+        String text = request.queryParam(Constants.QUERY_PARAM_SEARCH_TEXT).orElse("");
+        Integer size = Integer.parseInt(request.queryParam(Constants.QUERY_PARAM_SIZE).orElse(Constants.DEFAULT_SIZE_PAGINATION));
+        String cursor = request.queryParam(Constants.QUERY_PARAM_CURSOR).orElse(null);
+
+        return capacityServicePort.searchCapabilities(text, cursor, size)
+                .flatMap(pageCapabilities -> ServerResponse
+                        .status(HttpStatus.OK)
+                        .bodyValue(pageCapabilities))
+                .doOnError(ex -> log.error(Constants.CAPACITY_ERROR, ex))
+                .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
+                        HttpStatus.BAD_REQUEST,
+                        ex.getTechnicalMessage()))
+                .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
                 .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
                         HttpStatus.INTERNAL_SERVER_ERROR,
                         ex.getTechnicalMessage()))
@@ -84,7 +179,7 @@ public class CapacityHandlerImpl {
         return request.bodyToMono(AssignCapabilitiesDTO.class)
                 .flatMap(assignCapabilitiesDTO ->
                     capacityServicePort.assignCapabilitiesToBootcamp(assignCapabilitiesDTO.getBootcampId(), assignCapabilitiesDTO.getCapabilitiesIds())
-                        .doOnSuccess(successful -> log.info(Constants.ASSIGN_CAPABILITIES_CREATED_RS_OK))
+                        .doOnSuccess(successful -> log.debug(Constants.ASSIGN_CAPABILITIES_CREATED_RS_OK))
                 )
                 .then(ServerResponse
                     .status(HttpStatus.OK)
@@ -93,6 +188,7 @@ public class CapacityHandlerImpl {
                 .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
                         HttpStatus.CONFLICT,
                         ex.getTechnicalMessage()))
+                .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
                 .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
                         HttpStatus.INTERNAL_SERVER_ERROR,
                         ex.getTechnicalMessage()))
@@ -109,9 +205,15 @@ public class CapacityHandlerImpl {
         List<Long> bootcampsIds = Arrays.stream(capabilitiesParam.split(","))
             .map(Long::parseLong)
             .toList();
+        Optional<MediaType> streamingMediaType = request.headers().accept().stream()
+            .filter(mediaType -> STREAMING_MEDIA_TYPES.stream().anyMatch(mediaType::equalsTypeAndSubtype))
+            .findFirst();
+        if (streamingMediaType.isPresent()) {
+            return streamCapabilitiesByBootcampsIds(bootcampsIds, streamingMediaType.get());
+        }
         return capacityServicePort.getCapabilitiesByBootcampsIds(bootcampsIds)
             .collectList()
-            .doOnSuccess( bootcampList -> log.info(Constants.GET_BOOTCAMPS_CAPABILITIES_RS_OK))
+            .doOnSuccess( bootcampList -> log.debug(Constants.GET_BOOTCAMPS_CAPABILITIES_RS_OK))
             .flatMap(list ->
                 ServerResponse
                 .status(HttpStatus.OK)
@@ -120,6 +222,7 @@ public class CapacityHandlerImpl {
             .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
                     HttpStatus.CONFLICT,
                     ex.getTechnicalMessage()))
+            .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
             .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     ex.getTechnicalMessage()))
@@ -135,17 +238,30 @@ public class CapacityHandlerImpl {
         String order = request.queryParam(Constants.QUERY_PARAM_ORDER_SORT).orElse(OrderList.ASCENDANT.getMessage());
         int page = Integer.parseInt(request.queryParam(Constants.QUERY_PARAM_PAGE).orElse(Constants.DEFAULT_PAGE_PAGINATION));
         int size = Integer.parseInt(request.queryParam(Constants.QUERY_PARAM_SIZE).orElse(Constants.DEFAULT_SIZE_PAGINATION));
+        Optional<String> cursor = request.queryParam(Constants.QUERY_PARAM_CURSOR);
+        String totals = request.queryParam(Constants.QUERY_PARAM_TOTALS).orElse(Constants.DEFAULT_TOTALS_MODE);
 
-        return capacityServicePort.getSortCapabilitiesByBootcamps(OrderList.fromString(order.toUpperCase()), page, size)
-            .doOnSuccess( bootcampCustomPage -> log.info(Constants.GET_BOOTCAMPS_CAPABILITIES_RS_OK))
+        Mono<?> bootcamps = Mono.defer(() -> {
+            OrderList orderList = OrderList.fromString(order.toUpperCase());
+            TotalsMode totalsMode = TotalsMode.fromString(totals);
+            return cursor.isPresent()
+                ? capacityServicePort.getSortCapabilitiesByBootcampsByCursor(orderList, cursor.get(), size)
+                : capacityServicePort.getSortCapabilitiesByBootcamps(orderList, page, size, totalsMode);
+        });
+        return bootcamps
+            .doOnSuccess( bootcampCustomPage -> log.debug(Constants.GET_BOOTCAMPS_CAPABILITIES_RS_OK))
             .flatMap(bootcampCustomPage ->
                 ServerResponse
                 .status(HttpStatus.OK)
                 .bodyValue(bootcampCustomPage))
             .doOnError(ex -> log.error(Constants.CAPACITY_ERROR, ex))
+            .onErrorResume(InvalidFormatParamException.class, ex -> buildErrorResponse(
+                    HttpStatus.BAD_REQUEST,
+                    ex.getTechnicalMessage()))
             .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
                     HttpStatus.CONFLICT,
                     ex.getTechnicalMessage()))
+            .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
             .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     ex.getTechnicalMessage()))
@@ -167,6 +283,7 @@ public class CapacityHandlerImpl {
                 .onErrorResume(BusinessException.class, ex -> buildErrorResponse(
                         HttpStatus.CONFLICT,
                         ex.getTechnicalMessage()))
+                .onErrorResume(ServiceUnavailableException.class, this::buildServiceUnavailableResponse)
                 .onErrorResume(TechnicalException.class, ex -> buildErrorResponse(
                         HttpStatus.INTERNAL_SERVER_ERROR,
                         ex.getTechnicalMessage()))
@@ -178,6 +295,70 @@ public class CapacityHandlerImpl {
                 });
     }
 
+    /**
+     * The status is sent with the first bootcamp, so an error afterwards ends the stream with an
+     * {@link ErrorDTO} element (an {@code error} event over SSE) instead of cutting the body.
+     */
+    private Mono<ServerResponse> streamCapabilitiesByBootcampsIds(List<Long> bootcampsIds, MediaType mediaType) {
+        Flux<CapabilitiesPerBootcamp> bootcamps = capacityServicePort.streamCapabilitiesByBootcampsIds(bootcampsIds)
+            .doOnComplete(() -> log.debug(Constants.GET_BOOTCAMPS_CAPABILITIES_RS_OK))
+            .doOnError(ex -> log.error(Constants.CAPACITY_ERROR, ex));
+        Flux<Object> body = MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(mediaType)
+            ? bootcamps.<Object>map(bootcamp -> ServerSentEvent.builder(bootcamp).build())
+                .onErrorResume(ex -> Mono.just(ServerSentEvent.builder(buildStreamError(ex)).event(Constants.STREAM_ERROR_EVENT).build()))
+            : bootcamps.cast(Object.class)
+                .onErrorResume(ex -> Mono.just(buildStreamError(ex)));
+        return ServerResponse
+            .status(HttpStatus.OK)
+            .contentType(mediaType)
+            .body(body, Object.class);
+    }
+
+    private void recordBulkThroughput(SignalType signal, long start, long items, long created) {
+        long elapsedNanos = System.nanoTime() - start;
+        double itemsPerSecond = elapsedNanos == 0 ? 0.0 : items * 1_000_000_000.0 / elapsedNanos;
+        Timer.builder(Constants.METRIC_BULK_DURATION)
+            .tag(Constants.METRIC_TAG_OUTCOME, signal.name())
+            .register(meterRegistry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(Constants.METRIC_BULK_THROUGHPUT)
+            .baseUnit("items/s")
+            .register(meterRegistry)
+            .record(itemsPerSecond);
+        log.info(Constants.BULK_CAPABILITIES_SUMMARY, items, created, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(itemsPerSecond));
+    }
+
+    private CapacityRegistrationResultDTO buildRegistrationErrorResult(long index, Throwable ex) {
+        TechnicalMessage error = streamErrorMessage(ex);
+        return CapacityRegistrationResultDTO.builder()
+            .index(index)
+            .code(error.getCode())
+            .message(error.getMessage())
+            .build();
+    }
+
+    private ErrorDTO buildStreamError(Throwable ex) {
+        TechnicalMessage error = streamErrorMessage(ex);
+        return ErrorDTO.builder()
+            .code(error.getCode())
+            .message(error.getMessage())
+            .build();
+    }
+
+    /**
+     * Error reported inside a streamed body, once the status has already been sent.
+     */
+    private TechnicalMessage streamErrorMessage(Throwable ex) {
+        if (ex instanceof ProcessorException processorException) {
+            return processorException.getTechnicalMessage();
+        }
+        if (ex instanceof ServerWebInputException) {
+            return TechnicalMessage.INVALID_REQUEST;
+        }
+        log.error(Constants.UNEXPECTED_ERROR, ex);
+        return TechnicalMessage.INTERNAL_ERROR;
+    }
+
     private Mono<ServerResponse> buildErrorResponse(HttpStatus httpStatus, TechnicalMessage error) {
         return Mono.defer(() -> {
             ErrorDTO errorResponse = ErrorDTO.builder()
@@ -188,4 +369,17 @@ public class CapacityHandlerImpl {
                     .bodyValue(errorResponse);
         });
     }
+
+    private Mono<ServerResponse> buildServiceUnavailableResponse(ServiceUnavailableException ex) {
+        return Mono.defer(() -> {
+            ErrorDTO errorResponse = ErrorDTO.builder()
+                    .code(ex.getTechnicalMessage().getCode())
+                    .message(ex.getTechnicalMessage().getMessage())
+                    .build();
+            long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .bodyValue(errorResponse);
+        });
+    }
 }
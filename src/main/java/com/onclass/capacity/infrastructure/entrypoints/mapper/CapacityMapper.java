@@ -1,8 +1,12 @@
 package com.onclass.capacity.infrastructure.entrypoints.mapper;
 
+import com.onclass.capacity.domain.model.BootcampCountDrift;
 import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.CapacityRegistrationResult;
 import com.onclass.capacity.infrastructure.entrypoints.dto.request.CreateCapacityDTO;
 import com.onclass.capacity.infrastructure.entrypoints.dto.response.BasicCapacityDTO;
+import com.onclass.capacity.infrastructure.entrypoints.dto.response.BootcampCountDriftDTO;
+import com.onclass.capacity.infrastructure.entrypoints.dto.response.CapacityRegistrationResultDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -22,4 +26,16 @@ public interface CapacityMapper {
     @Mapping(source = "description", target = "description")
     @Mapping(source = "technologies", target = "technologies")
     Capacity toCapacity(CreateCapacityDTO createCapacityDTO);
+
+    @Mapping(source = "index", target = "index")
+    @Mapping(source = "name", target = "name")
+    @Mapping(source = "id", target = "id")
+    @Mapping(source = "result.code", target = "code")
+    @Mapping(source = "result.message", target = "message")
+    CapacityRegistrationResultDTO toRegistrationResultDTO(CapacityRegistrationResult registrationResult);
+
+    @Mapping(source = "bootcampId", target = "bootcampId")
+    @Mapping(source = "expectedCount", target = "expectedCount")
+    @Mapping(source = "storedCount", target = "storedCount")
+    BootcampCountDriftDTO toBootcampCountDriftDTO(BootcampCountDrift bootcampCountDrift);
 }
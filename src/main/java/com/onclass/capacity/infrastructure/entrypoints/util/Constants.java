@@ -9,9 +9,13 @@ public class Constants {
     public static final String UNEXPECTED_ERROR = "Unexpected error occurred";
     public static final String ASSIGN_CAPABILITIES_CREATED_RS_OK = "Capabilities assign successfully";
     public static final String GET_BOOTCAMPS_CAPABILITIES_RS_OK = "Get bootcamp list with capabilities successfully";
+    public static final String BULK_CAPABILITIES_SUMMARY = "Bulk capacity registration items={} created={} durationMs={} itemsPerSecond={}";
+    public static final String STREAM_ERROR_EVENT = "error";
 
     public static final String PATH_POST_CAPABILITY = "/capacity";
+    public static final String PATH_POST_CAPABILITIES_BULK = "/capacity/bulk";
     public static final String PATH_GET_ALL_CAPABILITIES = "/capacity/all";
+    public static final String PATH_GET_SEARCH_CAPABILITIES = "/capacity/search";
     public static final String PATH_POST_ASSIGN_CAPABILITIES = "/capacity/assign";
     public static final String PATH_GET_CAPABILITIES_BY_BOOTCAMPS_IDS = "/capacity/bootcamps_ids";
     public static final String PATH_GET_CAPABILITIES_SORT_BY_BOOTCAMPS = "/capacity/bootcamps";
@@ -23,7 +27,17 @@ public class Constants {
     public final String QUERY_PARAM_ITEM_SORT = "parameter";
     public final String QUERY_PARAM_PAGE = "page";
     public final String QUERY_PARAM_SIZE = "size";
+    public final String QUERY_PARAM_CURSOR = "cursor";
+    public final String QUERY_PARAM_SEARCH_TEXT = "q";
+    public final String QUERY_PARAM_TOTALS = "totals";
     public final String QUERY_PARAM_ID = "id";
     public final String DEFAULT_SIZE_PAGINATION = "10";
     public final String DEFAULT_PAGE_PAGINATION = "0";
+    public final String DEFAULT_TOTALS_MODE = "exact";
+
+    public final String METRIC_BULK_ITEMS = "capacity.bulk.items";
+    public final String METRIC_BULK_DURATION = "capacity.bulk.duration";
+    public final String METRIC_BULK_THROUGHPUT = "capacity.bulk.throughput";
+    public final String METRIC_TAG_RESULT = "result";
+    public final String METRIC_TAG_OUTCOME = "outcome";
 }
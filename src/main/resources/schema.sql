@@ -15,4 +15,85 @@ CREATE TABLE IF NOT EXISTS capacity_Bootcamp (
         FOREIGN KEY (id_capacity)
         REFERENCES capabilities(id)
         ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_capabilities_name_id ON capabilities (name, id);
+
+DO '
+DECLARE
+    duplicate_names TEXT;
+BEGIN
+    IF to_regclass(''uq_capabilities_name_lower'') IS NULL THEN
+        SELECT string_agg(duplicates.names, ''; '' ORDER BY duplicates.names) INTO duplicate_names
+        FROM (
+            SELECT string_agg(name || '' (id '' || id || '')'', '', '' ORDER BY id) AS names
+            FROM capabilities
+            WHERE name IS NOT NULL
+            GROUP BY LOWER(name)
+            HAVING COUNT(*) > 1
+        ) duplicates;
+        IF duplicate_names IS NOT NULL THEN
+            RAISE EXCEPTION ''Capability names differing only in case must be renamed or deleted before uq_capabilities_name_lower can be created: %'', duplicate_names;
+        END IF;
+    END IF;
+END;
+';
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_capabilities_name_lower ON capabilities (LOWER(name));
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP INDEX IF EXISTS idx_capabilities_name_trgm;
+
+DROP INDEX IF EXISTS idx_capabilities_description_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_capabilities_name_trgm_gist ON capabilities USING GIST (name gist_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_capabilities_description_trgm_gist ON capabilities USING GIST (description gist_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_capacity_bootcamp_bootcamp_capacity ON capacity_bootcamp (id_bootcamp, id_capacity);
+
+CREATE TABLE IF NOT EXISTS bootcamp_capabilities_count (
+    id_bootcamp BIGINT PRIMARY KEY,
+    capabilities_count BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bootcamp_capabilities_count_count_bootcamp ON bootcamp_capabilities_count (capabilities_count, id_bootcamp);
+
+INSERT INTO bootcamp_capabilities_count (id_bootcamp, capabilities_count)
+SELECT id_bootcamp, COUNT(*) FROM capacity_bootcamp GROUP BY id_bootcamp
+ON CONFLICT (id_bootcamp) DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS technology_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    operation VARCHAR(40) NOT NULL,
+    idempotency_key VARCHAR(36) NOT NULL UNIQUE,
+    capacity_id BIGINT,
+    payload TEXT NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    last_error VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_technology_outbox_status_next_attempt ON technology_outbox (status, next_attempt_at, id);
+
+CREATE OR REPLACE FUNCTION notify_capacity_catalog_change() RETURNS TRIGGER AS '
+BEGIN
+    PERFORM pg_notify(''capacity_catalog'', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS capabilities_catalog_change ON capabilities;
+CREATE TRIGGER capabilities_catalog_change AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON capabilities
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_capacity_catalog_change();
+
+DROP TRIGGER IF EXISTS capacity_bootcamp_catalog_change ON capacity_bootcamp;
+CREATE TRIGGER capacity_bootcamp_catalog_change AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON capacity_bootcamp
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_capacity_catalog_change();
+
+DROP TRIGGER IF EXISTS bootcamp_capabilities_count_catalog_change ON bootcamp_capabilities_count;
+CREATE TRIGGER bootcamp_capabilities_count_catalog_change AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON bootcamp_capabilities_count
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_capacity_catalog_change();
@@ -0,0 +1,63 @@
+package com.onclass.capacity.application.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.sampler.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TailSamplingSpanHandlerTest {
+
+    private InMemorySpanExporter exporter;
+    private Tracing tracing;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        TailSamplingProperties properties = new TailSamplingProperties();
+        properties.setThreshold(Duration.ofMillis(500));
+        exporter = new InMemorySpanExporter(10);
+        tracing = Tracing.newBuilder()
+            .sampler(Sampler.ALWAYS_SAMPLE)
+            .addSpanHandler(new TailSamplingSpanHandler(properties, exporter))
+            .build();
+        tracer = tracing.tracer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void onlyTracesSlowerThanTheThresholdAreExportedWithTheirCriticalPath() {
+        Span fastRoot = tracer.newTrace().name("GET /capacity/all").start(1_000);
+        tracer.newChild(fastRoot.context()).name("CapacityPersistencePort.findPaginatedAndSortByName").start(1_100).finish(20_000);
+        fastRoot.finish(40_000);
+
+        Span slowRoot = tracer.newTrace().name("GET /capacity/bootcamps").start(1_000);
+        Span useCase = tracer.newChild(slowRoot.context()).name("CapacityServicePort.getSortCapabilitiesByBootcamps").start(1_100);
+        tracer.newChild(useCase.context()).name("CapacityPersistencePort.findPaginatedAndSortByBootcampNumber").start(1_200).finish(50_000);
+        tracer.newChild(useCase.context()).name("TechnologiesGateway.getTechnologiesByCapabilitiesIds").start(50_100).finish(700_000);
+        useCase.finish(700_100);
+        slowRoot.finish(700_200);
+
+        List<SampledTrace> traces = exporter.traces();
+        assertEquals(1, traces.size());
+        SampledTrace slowTrace = traces.get(0);
+        assertEquals("get /capacity/bootcamps", slowTrace.rootName().toLowerCase());
+        assertTrue(slowTrace.durationMicros() >= 500_000);
+        assertEquals(4, slowTrace.spans().size());
+        assertEquals(List.of("get /capacity/bootcamps", "capacityserviceport.getsortcapabilitiesbybootcamps",
+                "technologiesgateway.gettechnologiesbycapabilitiesids"),
+            slowTrace.criticalPath().stream().map(span -> span.name().toLowerCase()).toList());
+    }
+}
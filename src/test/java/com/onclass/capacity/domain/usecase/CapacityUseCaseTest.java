@@ -0,0 +1,245 @@
+package com.onclass.capacity.domain.usecase;
+
+import com.onclass.capacity.domain.enums.ItemSortList;
+import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.enums.OutboxOperation;
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.enums.TotalsMode;
+import com.onclass.capacity.domain.exceptions.InvalidFormatParamException;
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.CapacityRegistrationResult;
+import com.onclass.capacity.domain.model.CapacitySearchHit;
+import com.onclass.capacity.domain.model.TechnologyOutboxEvent;
+import com.onclass.capacity.domain.model.spi.CapabilitiesBasicPerBootcamp;
+import com.onclass.capacity.domain.model.spi.CapabilitiesPerBootcamp;
+import com.onclass.capacity.domain.model.spi.CapacityBasicItem;
+import com.onclass.capacity.domain.model.spi.CapacityList;
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.model.spi.RankedBootcamp;
+import com.onclass.capacity.domain.spi.CapacityPersistencePort;
+import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
+import com.onclass.capacity.domain.utilities.CursorPage;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class CapacityUseCaseTest {
+
+    private static final Long BOOTCAMP_ID = 7L;
+    private static final List<Long> TECHNOLOGIES = List.of(1L, 2L, 3L);
+    private static final List<RankedBootcamp> RANKED_BOOTCAMPS = List.of(
+        rankedBootcamp(1L, 3L, 1L),
+        rankedBootcamp(2L, 1L, 1L, 2L),
+        rankedBootcamp(3L, 2L, 2L),
+        rankedBootcamp(4L, 2L, 1L),
+        rankedBootcamp(5L, 5L, 2L));
+
+    private CapacityPersistencePort capacityPersistencePort;
+    private TechnologiesGateway technologiesGateway;
+    private TechnologyOutboxPort technologyOutboxPort;
+    private CapacityUseCase capacityUseCase;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        capacityPersistencePort = mock(CapacityPersistencePort.class);
+        technologiesGateway = mock(TechnologiesGateway.class);
+        when(technologiesGateway.evictTechnologies(anyList())).thenReturn(Mono.empty());
+        technologyOutboxPort = mock(TechnologyOutboxPort.class);
+        when(technologyOutboxPort.enqueue(any())).thenReturn(Mono.empty());
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        capacityUseCase = new CapacityUseCase(capacityPersistencePort, technologiesGateway, technologyOutboxPort, transactionalOperator);
+    }
+
+    @Test
+    void deleteCapabilitiesOfALargeBootcampRunsAFixedNumberOfStatements() {
+        List<Long> exclusiveCapabilitiesIds = LongStream.rangeClosed(1, 1_000).boxed().toList();
+        when(capacityPersistencePort.findExclusiveCapabilitiesIds(BOOTCAMP_ID)).thenReturn(Flux.fromIterable(exclusiveCapabilitiesIds));
+        when(capacityPersistencePort.deleteAllCapabilities(anyList())).thenReturn(Mono.empty());
+        when(capacityPersistencePort.deleteAllAssignations(BOOTCAMP_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(capacityUseCase.deleteCapabilitiesByBootcampId(BOOTCAMP_ID))
+            .verifyComplete();
+
+        verify(capacityPersistencePort).findExclusiveCapabilitiesIds(BOOTCAMP_ID);
+        verify(capacityPersistencePort).deleteAllCapabilities(exclusiveCapabilitiesIds);
+        verify(capacityPersistencePort).deleteAllAssignations(BOOTCAMP_ID);
+        verifyNoMoreInteractions(capacityPersistencePort);
+        verify(technologyOutboxPort).enqueue(argThat(event ->
+            event.operation() == OutboxOperation.DELETE_TECHNOLOGIES && event.ids().equals(exclusiveCapabilitiesIds)));
+        verify(technologiesGateway).evictTechnologies(exclusiveCapabilitiesIds);
+        verifyNoMoreInteractions(technologiesGateway);
+    }
+
+    @Test
+    void searchCursorResumesAfterTheLastRankedHit() {
+        when(capacityPersistencePort.searchByText("java", 3, null, null)).thenReturn(Flux.just(
+            new CapacitySearchHit(new Capacity(4L, "Java", null, null), 1.8f),
+            new CapacitySearchHit(new Capacity(2L, "Java advanced", null, null), 1.5f),
+            new CapacitySearchHit(new Capacity(9L, "JavaScript", null, null), 1.5f)));
+        when(technologiesGateway.getTechnologiesByCapabilitiesIds(List.of(4L, 2L))).thenReturn(Mono.just(List.of()));
+        when(capacityPersistencePort.searchByText("java", 3, 1.5f, 2L)).thenReturn(Flux.just(
+            new CapacitySearchHit(new Capacity(9L, "JavaScript", null, null), 1.5f)));
+        when(technologiesGateway.getTechnologiesByCapabilitiesIds(List.of(9L))).thenReturn(Mono.just(List.of()));
+
+        CursorPage<CapacityList> firstPage = capacityUseCase.searchCapabilities(" java ", null, 2).block();
+        CursorPage<CapacityList> secondPage = capacityUseCase.searchCapabilities("java", firstPage.getNextCursor(), 2).block();
+
+        assertEquals(List.of(4L, 2L), firstPage.getData().stream().map(CapacityList::id).toList());
+        assertEquals(List.of(9L), secondPage.getData().stream().map(CapacityList::id).toList());
+        assertTrue(secondPage.getIsLastPage());
+        StepVerifier.create(capacityUseCase.searchCapabilities("ja", null, 2))
+            .verifyErrorSatisfies(ex -> assertEquals(TechnicalMessage.SEARCH_TEXT_TOO_SHORT,
+                ((InvalidFormatParamException) ex).getTechnicalMessage()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(OrderList.class)
+    void bootcampCursorWalksTheStoredCounterRankingPageByPage(OrderList order) {
+        boolean descending = order == OrderList.DESCENDANT;
+        when(capacityPersistencePort.findSortByBootcampNumberAfter(eq(order.getMessage()), anyInt(), any(), any()))
+            .thenAnswer(invocation -> Flux.fromIterable(keysetPage(descending,
+                invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3))));
+        when(technologiesGateway.getTechnologiesByCapabilitiesIds(anyList())).thenReturn(Mono.just(List.of()));
+
+        CursorPage<CapabilitiesPerBootcamp> firstPage = capacityUseCase.getSortCapabilitiesByBootcampsByCursor(order, null, 2).block();
+        CursorPage<CapabilitiesPerBootcamp> middlePage = capacityUseCase.getSortCapabilitiesByBootcampsByCursor(order, firstPage.getNextCursor(), 2).block();
+        CursorPage<CapabilitiesPerBootcamp> lastPage = capacityUseCase.getSortCapabilitiesByBootcampsByCursor(order, middlePage.getNextCursor(), 2).block();
+
+        List<Long> expectedIds = descending ? List.of(5L, 1L, 4L, 3L, 2L) : List.of(2L, 3L, 4L, 1L, 5L);
+        assertEquals(expectedIds.subList(0, 2), bootcampIds(firstPage));
+        assertEquals(expectedIds.subList(2, 4), bootcampIds(middlePage));
+        assertEquals(expectedIds.subList(4, 5), bootcampIds(lastPage));
+        assertFalse(firstPage.getIsLastPage());
+        assertFalse(middlePage.getIsLastPage());
+        assertTrue(lastPage.getIsLastPage());
+        assertNull(lastPage.getNextCursor());
+        verify(capacityPersistencePort).findSortByBootcampNumberAfter(order.getMessage(), 3, descending ? 3L : 2L, descending ? 1L : 3L);
+    }
+
+    @Test
+    void technologiesSortDropsTheUpstreamTotalOnlyWhenTotalsAreNone() {
+        CustomPage<CapacityTechnologies> upstreamPage = new CustomPage<>(
+            List.of(new CapacityTechnologies(10L, List.of())), 21L, 3, false, 0, 10);
+        when(technologiesGateway.getSortTechnologiesByCapabilities("ASC", 10, 0)).thenReturn(Mono.just(upstreamPage));
+        when(capacityPersistencePort.findAllByIds(List.of(10L))).thenReturn(Flux.just(new Capacity(10L, "Java", "Backend", List.of())));
+
+        StepVerifier.create(capacityUseCase.listCapabilities(OrderList.ASCENDANT, ItemSortList.CAPABILITIES, 0, 10, TotalsMode.APPROXIMATE))
+            .assertNext(page -> assertEquals(21L, page.getTotalItems()))
+            .verifyComplete();
+        StepVerifier.create(capacityUseCase.listCapabilities(OrderList.ASCENDANT, ItemSortList.CAPABILITIES, 0, 10, TotalsMode.NONE))
+            .assertNext(page -> {
+                assertNull(page.getTotalItems());
+                assertNull(page.getTotalPages());
+                assertFalse(page.getIsLastPage());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void streamWindowsAreBoundedByCapabilityRowsNotBootcamps() {
+        List<CapabilitiesBasicPerBootcamp> bootcamps = List.of(
+            basicBootcamp(1L, 1, 300),
+            basicBootcamp(2L, 301, 300),
+            basicBootcamp(3L, 601, 1_200));
+        when(capacityPersistencePort.streamCapabilitiesByBootcampsIds(List.of(1L, 2L, 3L))).thenReturn(Flux.fromIterable(bootcamps));
+        when(technologiesGateway.getTechnologiesByCapabilitiesIds(anyList())).thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(capacityUseCase.streamCapabilitiesByBootcampsIds(List.of(1L, 2L, 3L)))
+            .expectNextMatches(bootcamp -> bootcamp.id().equals(1L))
+            .expectNextMatches(bootcamp -> bootcamp.id().equals(2L))
+            .expectNextMatches(bootcamp -> bootcamp.id().equals(3L) && bootcamp.capabilities().size() == 1_200)
+            .verifyComplete();
+
+        verify(technologiesGateway, times(5)).getTechnologiesByCapabilitiesIds(argThat(ids -> ids.size() <= 500));
+    }
+
+    @Test
+    void bulkRegistrationReportsOneResultPerItemInInputOrder() {
+        when(capacityPersistencePort.findExistingNames(anyList())).thenReturn(Flux.just("backend"));
+        when(capacityPersistencePort.insertAll(anyList())).thenReturn(Flux.just(
+            new Capacity(10L, "Frontend", "Web", null),
+            new Capacity(11L, "Data", "Analytics", null)));
+        when(technologyOutboxPort.enqueueAll(anyList())).thenReturn(Mono.empty());
+
+        StepVerifier.create(capacityUseCase.registerCapabilities(Flux.just(
+                new Capacity(null, "Frontend", "Web", TECHNOLOGIES),
+                new Capacity(null, "Mobile", "Apps", List.of()),
+                new Capacity(null, "Frontend", "Web again", TECHNOLOGIES),
+                new Capacity(null, "Backend", "Server", TECHNOLOGIES),
+                new Capacity(null, "Data", "Analytics", TECHNOLOGIES)))
+                .map(CapacityRegistrationResult::result))
+            .expectNext(
+                TechnicalMessage.CAPACITY_CREATED,
+                TechnicalMessage.LIST_TECHNOLOGIES_IS_TOO_SHORT,
+                TechnicalMessage.CAPACITY_ALREADY_EXISTS,
+                TechnicalMessage.CAPACITY_ALREADY_EXISTS,
+                TechnicalMessage.CAPACITY_CREATED)
+            .verifyComplete();
+
+        verify(capacityPersistencePort).insertAll(List.of(
+            new Capacity(null, "Frontend", "Web", TECHNOLOGIES),
+            new Capacity(null, "Data", "Analytics", TECHNOLOGIES)));
+        verify(technologyOutboxPort).enqueueAll(argThat(events -> events.size() == 2
+            && events.stream().allMatch(event -> event.operation() == OutboxOperation.ASSIGN_TECHNOLOGIES
+                && event.ids().equals(TECHNOLOGIES))
+            && events.stream().map(TechnologyOutboxEvent::capacityId).toList().equals(List.of(10L, 11L))));
+        verify(technologiesGateway).evictTechnologies(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(10L, 11L))));
+        verifyNoMoreInteractions(technologiesGateway);
+    }
+
+    private static List<RankedBootcamp> keysetPage(boolean descending, Integer size, Long lastCount, Long lastBootcampId) {
+        Comparator<RankedBootcamp> rank = Comparator.comparing(RankedBootcamp::capabilitiesCount).thenComparing(RankedBootcamp::id);
+        Comparator<RankedBootcamp> order = descending ? rank.reversed() : rank;
+        RankedBootcamp last = lastCount == null ? null : new RankedBootcamp(lastBootcampId, lastCount, List.of());
+        return RANKED_BOOTCAMPS.stream()
+            .filter(bootcamp -> last == null || order.compare(bootcamp, last) > 0)
+            .sorted(order)
+            .limit(size)
+            .toList();
+    }
+
+    private static CapabilitiesBasicPerBootcamp basicBootcamp(Long bootcampId, long firstCapacityId, int capabilities) {
+        return new CapabilitiesBasicPerBootcamp(bootcampId, LongStream.range(firstCapacityId, firstCapacityId + capabilities)
+            .mapToObj(capacityId -> new CapacityBasicItem(capacityId, "Capacity " + capacityId))
+            .toList());
+    }
+
+    private static RankedBootcamp rankedBootcamp(Long id, Long storedCount, Long... capabilitiesIds) {
+        return new RankedBootcamp(id, storedCount, Arrays.stream(capabilitiesIds)
+            .map(capacityId -> new CapacityBasicItem(capacityId, "Capacity " + capacityId))
+            .toList());
+    }
+
+    private static List<Long> bootcampIds(CursorPage<CapabilitiesPerBootcamp> page) {
+        return page.getData().stream().map(CapabilitiesPerBootcamp::id).toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.onclass.capacity.domain.usecase;
+
+import com.onclass.capacity.domain.api.CapacityServicePort;
+import com.onclass.capacity.domain.enums.ItemSortList;
+import com.onclass.capacity.domain.enums.OrderList;
+import com.onclass.capacity.domain.enums.TotalsMode;
+import com.onclass.capacity.domain.model.spi.CapacityList;
+import com.onclass.capacity.domain.utilities.CustomPage;
+import com.onclass.capacity.domain.utilities.SingleFlight;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescingCapacityUseCaseTest {
+
+    private static final int CONCURRENT_REQUESTS = 200;
+
+    @Test
+    void identicalRequestsSubscribedWhileOneIsInFlightShareItsUpstreamCall() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CustomPage<CapacityList> page = CustomPage.buildCustomPage(
+            List.of(new CapacityList(1L, "Backend", List.of())), 0, 10, 1L);
+        CapacityServicePort capacityServicePort = mock(CapacityServicePort.class);
+        when(capacityServicePort.listCapabilities(OrderList.ASCENDANT, ItemSortList.NAME, 0, 10, TotalsMode.EXACT))
+            .thenReturn(Mono.defer(() -> {
+                upstreamCalls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(200)).thenReturn(page);
+            }));
+        CoalescingCapacityUseCase coalescingCapacityUseCase = new CoalescingCapacityUseCase(capacityServicePort);
+
+        StepVerifier.create(Flux.range(0, CONCURRENT_REQUESTS)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(request -> coalescingCapacityUseCase.listCapabilities(OrderList.ASCENDANT, ItemSortList.NAME, 0, 10, TotalsMode.EXACT))
+                .sequential()
+                .collectList())
+            .assertNext(pages -> assertEquals(CONCURRENT_REQUESTS, pages.size()))
+            .verifyComplete();
+
+        SingleFlight<?, ?> listFlight = coalescingCapacityUseCase.singleFlights().get(0);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(CONCURRENT_REQUESTS, listFlight.requests());
+        assertEquals(1, listFlight.executions());
+    }
+
+    @Test
+    void sequentialRequestsAreNotServedFromAFinishedFlight() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CapacityServicePort capacityServicePort = mock(CapacityServicePort.class);
+        when(capacityServicePort.listCapabilities(OrderList.DESCENDANT, ItemSortList.NAME, 1, 5, TotalsMode.EXACT))
+            .thenReturn(Mono.fromCallable(() -> {
+                upstreamCalls.incrementAndGet();
+                return CustomPage.buildCustomPage(List.<CapacityList>of(), 1, 5, 0L);
+            }));
+        CoalescingCapacityUseCase coalescingCapacityUseCase = new CoalescingCapacityUseCase(capacityServicePort);
+
+        for (int request = 0; request < 3; request++) {
+            StepVerifier.create(coalescingCapacityUseCase.listCapabilities(OrderList.DESCENDANT, ItemSortList.NAME, 1, 5, TotalsMode.EXACT))
+                .expectNextCount(1)
+                .verifyComplete();
+        }
+
+        assertEquals(3, upstreamCalls.get());
+    }
+}
@@ -0,0 +1,122 @@
+package com.onclass.capacity.domain.usecase;
+
+import com.onclass.capacity.domain.enums.OutboxOperation;
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.BusinessException;
+import com.onclass.capacity.domain.exceptions.TechnicalException;
+import com.onclass.capacity.domain.model.TechnologyOutboxEvent;
+import com.onclass.capacity.domain.spi.CapacityPersistencePort;
+import com.onclass.capacity.domain.spi.TechnologiesGateway;
+import com.onclass.capacity.domain.spi.TechnologyOutboxPort;
+import com.onclass.capacity.infrastructure.entrypoints.util.ResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TechnologyOutboxRelayTest {
+
+    private static final List<Long> TECHNOLOGIES = List.of(1L, 2L, 3L);
+
+    private final TechnologyOutboxPort technologyOutboxPort = mock(TechnologyOutboxPort.class);
+    private final TechnologiesGateway technologiesGateway = mock(TechnologiesGateway.class);
+    private final CapacityPersistencePort capacityPersistencePort = mock(CapacityPersistencePort.class);
+    private final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+    private final TechnologyOutboxRelay relay =
+        new TechnologyOutboxRelay(technologyOutboxPort, technologiesGateway, capacityPersistencePort, transactionalOperator);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(technologiesGateway.evictTechnologies(anyList())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void deliveredEventsAreRemovedAndFailedOnesRescheduledOrDead() {
+        when(technologyOutboxPort.claimPending(anyInt(), any())).thenReturn(Flux.just(
+            event(1L, OutboxOperation.ASSIGN_TECHNOLOGIES, "key-1", 0),
+            event(2L, OutboxOperation.ASSIGN_TECHNOLOGIES, "key-2", 2),
+            event(3L, OutboxOperation.DELETE_TECHNOLOGIES, "key-3", 0)));
+        when(technologiesGateway.assignTechnologiesToCapacity(10L, TECHNOLOGIES, "key-1")).thenReturn(Mono.just(new ResponseDTO("ok")));
+        when(technologiesGateway.assignTechnologiesToCapacity(10L, TECHNOLOGIES, "key-2"))
+            .thenReturn(Mono.error(new TechnicalException(TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER)));
+        when(technologiesGateway.deleteTechnologiesByCapabilitiesIds(TECHNOLOGIES, "key-3"))
+            .thenReturn(Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGIES_NOT_FOUND)));
+        when(technologyOutboxPort.markSent(anyLong())).thenReturn(Mono.empty());
+        when(technologyOutboxPort.markFailed(anyLong(), anyInt(), any(), anyBoolean(), anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch()).expectNext(3L).verifyComplete();
+
+        verify(technologyOutboxPort).markSent(1L);
+        verify(technologyOutboxPort).markFailed(eq(2L), eq(3), eq(Duration.ofSeconds(4)), eq(false), anyString());
+        verify(technologyOutboxPort).markFailed(eq(3L), eq(1), eq(Duration.ofSeconds(1)), eq(true), anyString());
+        assertEquals(1, relay.sent());
+        assertEquals(2, relay.failures());
+        verify(capacityPersistencePort, never()).deleteCapabilitiesAndAssignations(any());
+        verify(technologiesGateway, times(2)).evictTechnologies(List.of(10L));
+        verify(technologiesGateway).evictTechnologies(TECHNOLOGIES);
+    }
+
+    @Test
+    void capacityIsDeletedWhenItsTechnologiesAreUnknown() {
+        when(technologyOutboxPort.claimPending(anyInt(), any())).thenReturn(Flux.just(
+            event(1L, OutboxOperation.ASSIGN_TECHNOLOGIES, "key-1", 0)));
+        when(technologiesGateway.assignTechnologiesToCapacity(10L, TECHNOLOGIES, "key-1"))
+            .thenReturn(Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGIES_NOT_FOUND)));
+        when(capacityPersistencePort.deleteCapabilitiesAndAssignations(List.of(10L))).thenReturn(Mono.empty());
+        when(technologyOutboxPort.markFailed(anyLong(), anyInt(), any(), anyBoolean(), anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch()).expectNext(1L).verifyComplete();
+
+        verify(capacityPersistencePort).deleteCapabilitiesAndAssignations(List.of(10L));
+        verify(technologyOutboxPort).markFailed(eq(1L), eq(1), any(), eq(true), anyString());
+        assertEquals(1, relay.compensations());
+        verify(technologiesGateway).evictTechnologies(List.of(10L));
+    }
+
+    @Test
+    void eventIsParkedAsFailedEvenWhenItsCompensationFails() {
+        when(technologyOutboxPort.claimPending(anyInt(), any())).thenReturn(Flux.just(
+            event(1L, OutboxOperation.ASSIGN_TECHNOLOGIES, "key-1", 0),
+            event(2L, OutboxOperation.ASSIGN_TECHNOLOGIES, "key-2", 0)));
+        when(technologiesGateway.assignTechnologiesToCapacity(10L, TECHNOLOGIES, "key-1"))
+            .thenReturn(Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGIES_NOT_FOUND)));
+        when(technologiesGateway.assignTechnologiesToCapacity(10L, TECHNOLOGIES, "key-2")).thenReturn(Mono.just(new ResponseDTO("ok")));
+        when(capacityPersistencePort.deleteCapabilitiesAndAssignations(List.of(10L)))
+            .thenReturn(Mono.error(new TechnicalException(TechnicalMessage.INTERNAL_ERROR)));
+        when(technologyOutboxPort.markSent(anyLong())).thenReturn(Mono.empty());
+        when(technologyOutboxPort.markFailed(anyLong(), anyInt(), any(), anyBoolean(), anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch()).expectNext(2L).verifyComplete();
+
+        verify(technologyOutboxPort).markFailed(eq(1L), eq(1), any(), eq(true), anyString());
+        verify(technologyOutboxPort).markSent(2L);
+        assertEquals(0, relay.compensations());
+        assertEquals(1, relay.compensationFailures());
+    }
+
+    private TechnologyOutboxEvent event(Long id, OutboxOperation operation, String idempotencyKey, int attempts) {
+        return new TechnologyOutboxEvent(id, operation, idempotencyKey, 10L, TECHNOLOGIES, attempts, Instant.now());
+    }
+}
@@ -0,0 +1,112 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.EntityNotFoundException;
+import com.onclass.capacity.domain.exceptions.ServiceUnavailableException;
+import com.onclass.capacity.domain.exceptions.TechnicalException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the limiter in rounds against a simulated downstream whose latency is a function of the
+ * calls in flight, on an injected clock: every client tries a call, the clock advances by the
+ * latency of the admitted concurrency, then all admitted calls complete.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int CLIENTS = 40;
+    private static final int MAX_LIMIT = 30;
+    private static final int ROUNDS = 200;
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(60);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+        "test", 5, 1, MAX_LIMIT, LATENCY_THRESHOLD, 0.9, RETRY_AFTER, clock::get);
+
+    @Test
+    void limitSettlesAroundTheKneeWhenLatencyRisesWithConcurrency() {
+        // 10ms + 5ms per concurrent call crosses the 60ms threshold past 10 concurrent calls.
+        int maxConcurrency = drive(concurrency -> 10 + 5L * concurrency);
+
+        assertEquals(11, maxConcurrency);
+        assertTrue(limiter.getLimit() <= 11, "limit " + limiter.getLimit());
+        assertTrue(limiter.rejections() > 0);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void limitGrowsToTheMaximumWhileLatencyStaysFlat() {
+        int maxConcurrency = drive(concurrency -> 10);
+
+        assertEquals(MAX_LIMIT, maxConcurrency);
+        assertEquals(MAX_LIMIT, limiter.getLimit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void callsOverTheLimitAreRejectedWithRetryAfter() {
+        List<Sinks.Empty<Void>> admitted = new ArrayList<>();
+        for (int call = 0; call < 5; call++) {
+            Sinks.Empty<Void> response = Sinks.empty();
+            limiter.execute(response.asMono()).subscribe();
+            admitted.add(response);
+        }
+
+        StepVerifier.create(limiter.execute(Mono.empty()))
+            .expectErrorSatisfies(error -> {
+                ServiceUnavailableException rejection = (ServiceUnavailableException) error;
+                assertEquals(TechnicalMessage.DEPENDENCY_OVERLOADED, rejection.getTechnicalMessage());
+                assertEquals(RETRY_AFTER, rejection.getRetryAfter());
+            })
+            .verify();
+        admitted.forEach(Sinks.Empty::tryEmitEmpty);
+        assertEquals(1, limiter.rejections());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void onlyTechnicalFailuresCutTheLimit() {
+        StepVerifier.create(limiter.execute(Mono.error(new EntityNotFoundException(TechnicalMessage.TECHNOLOGIES_NOT_FOUND))))
+            .expectError(EntityNotFoundException.class)
+            .verify();
+        assertEquals(5, limiter.getLimit());
+
+        StepVerifier.create(limiter.execute(Mono.error(new TechnicalException(TechnicalMessage.ERROR_TECHNOLOGIES_ADAPTER))))
+            .expectError(TechnicalException.class)
+            .verify();
+        assertEquals(4, limiter.getLimit());
+    }
+
+    /**
+     * Runs {@link #ROUNDS} rounds and answers the highest concurrency the downstream saw.
+     */
+    private int drive(IntToLongFunction latencyMillis) {
+        int maxConcurrency = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Sinks.Empty<Void>> admitted = new ArrayList<>();
+            for (int client = 0; client < CLIENTS; client++) {
+                Sinks.Empty<Void> response = Sinks.empty();
+                limiter.execute(response.asMono()).subscribe(null, error -> { });
+                admitted.add(response);
+            }
+            int concurrency = limiter.inFlight();
+            maxConcurrency = Math.max(maxConcurrency, concurrency);
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis.applyAsLong(concurrency)));
+            admitted.forEach(Sinks.Empty::tryEmitEmpty);
+        }
+        return maxConcurrency;
+    }
+}
@@ -0,0 +1,87 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveBulkheadTest {
+
+    @Test
+    void concurrentSubscriptionsAreCappedAtMaxConcurrentCalls() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead("test", 3, 100, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Mono<Integer> call = Mono.defer(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return Mono.delay(Duration.ofMillis(20)).thenReturn(1);
+            })
+            .doFinally(signal -> running.decrementAndGet());
+
+        StepVerifier.create(Flux.range(0, 30).flatMap(index -> bulkhead.execute(call)).count())
+            .expectNext(30L)
+            .verifyComplete();
+
+        assertEquals(3, maxRunning.get());
+        assertEquals(0, bulkhead.inFlight());
+        assertEquals(0, bulkhead.queueDepth());
+    }
+
+    @Test
+    void callsOverTheQueueAreRejected() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead("test", 1, 1, Duration.ofSeconds(5));
+        Sinks.Empty<Void> gate = Sinks.empty();
+        Disposable running = bulkhead.execute(gate.asMono()).subscribe();
+        Disposable queued = bulkhead.execute(gate.asMono()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.just(1)))
+            .expectErrorSatisfies(error -> assertOverloaded(error, Duration.ofSeconds(5)))
+            .verify();
+        assertEquals(1, bulkhead.rejections());
+        assertEquals(1, bulkhead.queueDepth());
+
+        gate.tryEmitEmpty();
+        assertTrue(running.isDisposed());
+        assertTrue(queued.isDisposed());
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    @Test
+    void waitingTooLongTimesOutAndCancellingReleasesThePermit() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead("test", 1, 10, Duration.ofMillis(50));
+        Disposable holder = bulkhead.execute(Mono.never()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.just(1)))
+            .expectErrorSatisfies(error -> assertOverloaded(error, Duration.ofMillis(50)))
+            .verify(Duration.ofSeconds(5));
+        assertEquals(1, bulkhead.timeouts());
+        assertEquals(0, bulkhead.queueDepth());
+
+        holder.dispose();
+        StepVerifier.create(bulkhead.execute(Mono.just(1)))
+            .expectNext(1)
+            .verifyComplete();
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    /**
+     * Rejections must be the 503 type, which the handlers answer with a Retry-After header, not a
+     * plain TechnicalException answered with a 500.
+     */
+    private static void assertOverloaded(Throwable error, Duration retryAfter) {
+        ServiceUnavailableException rejection = assertInstanceOf(ServiceUnavailableException.class, error);
+        assertEquals(TechnicalMessage.DEPENDENCY_OVERLOADED, rejection.getTechnicalMessage());
+        assertEquals(retryAfter, rejection.getRetryAfter());
+    }
+}
@@ -0,0 +1,34 @@
+package com.onclass.capacity.domain.utilities;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestHedgerTest {
+
+    @Test
+    void slowAttemptIsHedgedWithinTheBudget() {
+        List<Duration> latencies = List.of(Duration.ZERO, Duration.ofMillis(300), Duration.ofMillis(5), Duration.ofMillis(300));
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<Integer> attempt = Mono.defer(() -> {
+            int index = subscriptions.getAndIncrement();
+            return Mono.delay(latencies.get(index)).thenReturn(index);
+        });
+        RequestHedger hedger = new RequestHedger("test", 0.5, Duration.ofMillis(10), 1, 0.5);
+
+        StepVerifier.create(hedger.execute(attempt)).expectNext(0).verifyComplete();
+        StepVerifier.create(hedger.execute(attempt)).expectNext(2).verifyComplete();
+        StepVerifier.create(hedger.execute(attempt)).expectNext(3).verifyComplete();
+
+        assertEquals(1, hedger.fired());
+        assertEquals(1, hedger.won());
+        assertEquals(1, hedger.budgetExhausted());
+        assertEquals(4, subscriptions.get());
+    }
+}
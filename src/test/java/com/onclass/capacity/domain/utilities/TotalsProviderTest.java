@@ -0,0 +1,53 @@
+package com.onclass.capacity.domain.utilities;
+
+import com.onclass.capacity.domain.enums.TotalsMode;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TotalsProviderTest {
+
+    @Test
+    void exactTotalIsCachedUntilInvalidated() {
+        AtomicLong counts = new AtomicLong();
+        TotalsProvider totalsProvider = new TotalsProvider(
+            () -> Mono.fromCallable(counts::incrementAndGet), () -> Mono.just(-1L), Duration.ofMinutes(5));
+
+        StepVerifier.create(totalsProvider.total(TotalsMode.EXACT)).expectNext(1L).verifyComplete();
+        StepVerifier.create(totalsProvider.total(TotalsMode.EXACT)).expectNext(1L).verifyComplete();
+        StepVerifier.create(totalsProvider.total(TotalsMode.APPROXIMATE)).expectNext(1L).verifyComplete();
+        totalsProvider.invalidate();
+        StepVerifier.create(totalsProvider.total(TotalsMode.EXACT)).expectNext(2L).verifyComplete();
+        StepVerifier.create(totalsProvider.total(TotalsMode.NONE)).verifyComplete();
+
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    void offeredTotalIsServedUnlessInvalidatedWhileItWasComputed() {
+        AtomicLong counts = new AtomicLong();
+        TotalsProvider totalsProvider = new TotalsProvider(
+            () -> Mono.fromCallable(counts::incrementAndGet), () -> Mono.just(-1L), Duration.ofMinutes(5));
+
+        assertTrue(totalsProvider.needsExactTotal(TotalsMode.EXACT));
+        assertFalse(totalsProvider.needsExactTotal(TotalsMode.APPROXIMATE));
+        totalsProvider.offer(40L, totalsProvider.generation());
+        assertFalse(totalsProvider.needsExactTotal(TotalsMode.EXACT));
+        StepVerifier.create(totalsProvider.total(TotalsMode.EXACT)).expectNext(40L).verifyComplete();
+
+        long generation = totalsProvider.generation();
+        totalsProvider.invalidate();
+        totalsProvider.offer(41L, generation);
+        assertTrue(totalsProvider.needsExactTotal(TotalsMode.EXACT));
+        StepVerifier.create(totalsProvider.total(TotalsMode.EXACT)).expectNext(1L).verifyComplete();
+
+        assertEquals(1, counts.get());
+    }
+}
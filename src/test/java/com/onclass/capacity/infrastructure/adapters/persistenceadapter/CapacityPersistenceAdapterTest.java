@@ -0,0 +1,157 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.enums.TechnicalMessage;
+import com.onclass.capacity.domain.exceptions.EntityAlreadyExistException;
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityBootcampRepository;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.onclass.capacity.infrastructure.adapters.persistenceadapter.util.Constants.SEARCH_MAX_CANDIDATES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CapacityPersistenceAdapterTest {
+
+    private static final int PARALLEL_CREATES = 32;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = TestDatabase.container();
+
+    private static ConnectionFactory connectionFactory;
+    private static DatabaseClient databaseClient;
+    private static CapacityPersistenceAdapter capacityPersistenceAdapter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = TestDatabase.connect(POSTGRES, PARALLEL_CREATES);
+        databaseClient = DatabaseClient.create(connectionFactory);
+        capacityPersistenceAdapter = new CapacityPersistenceAdapter(
+            TestDatabase.repository(connectionFactory, CapacityRepository.class),
+            TestDatabase.repository(connectionFactory, CapacityBootcampRepository.class),
+            Mappers.getMapper(CapacityEntityMapper.class),
+            new ObjectMapper());
+    }
+
+    @BeforeEach
+    void cleanUp() {
+        databaseClient.sql("TRUNCATE capabilities, capacity_bootcamp, bootcamp_capabilities_count RESTART IDENTITY")
+            .then()
+            .block();
+    }
+
+    @Test
+    void parallelCreatesWithTheSameNameCreateExactlyOneCapacity() {
+        StepVerifier.create(Flux.range(0, PARALLEL_CREATES)
+                .flatMap(index -> capacityPersistenceAdapter.insertIfAbsent(
+                        new Capacity(null, index % 2 == 0 ? "Backend" : "BACKEND", "Server", null))
+                    .subscribeOn(Schedulers.parallel())
+                    .map(capacity -> TechnicalMessage.CAPACITY_CREATED)
+                    .onErrorResume(EntityAlreadyExistException.class, ex -> Mono.just(ex.getTechnicalMessage())), PARALLEL_CREATES)
+                .collectList())
+            .assertNext(results -> {
+                assertEquals(1, Collections.frequency(results, TechnicalMessage.CAPACITY_CREATED));
+                assertEquals(PARALLEL_CREATES - 1, Collections.frequency(results, TechnicalMessage.CAPACITY_ALREADY_EXISTS));
+            })
+            .verifyComplete();
+
+        StepVerifier.create(capacityPersistenceAdapter.countCapabilities())
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void bulkInsertSkipsNamesTakenInAnotherCase() {
+        capacityPersistenceAdapter.insertIfAbsent(new Capacity(null, "Frontend", "Web", null)).block();
+
+        StepVerifier.create(capacityPersistenceAdapter.insertAll(List.of(
+                    new Capacity(null, "FRONTEND", "Web again", null),
+                    new Capacity(null, "Data", "Analytics", null)))
+                .map(Capacity::name))
+            .expectNext("Data")
+            .verifyComplete();
+    }
+
+    @Test
+    void searchRanksTheBestMatchFirstEvenPastTheCandidateLimitById() {
+        capacityPersistenceAdapter.insertAll(IntStream.rangeClosed(1, SEARCH_MAX_CANDIDATES + 100)
+                .mapToObj(index -> new Capacity(null, "Zetta course " + index, null, null))
+                .toList())
+            .then()
+            .block();
+        capacityPersistenceAdapter.insertIfAbsent(new Capacity(null, "Zeta", null, null)).block();
+
+        StepVerifier.create(capacityPersistenceAdapter.searchByText("zeta", 3, null, null)
+                .map(hit -> hit.capacity().name()))
+            .expectNext("Zeta")
+            .expectNextCount(2)
+            .verifyComplete();
+    }
+
+    @Test
+    void deletingCapabilitiesReleasesTheirAssignationsFromTheBootcampCounters() {
+        List<Long> ids = capacityPersistenceAdapter.insertAll(List.of(
+                new Capacity(null, "Backend", "Server", null),
+                new Capacity(null, "Frontend", "Web", null)))
+            .map(Capacity::id)
+            .collectList()
+            .block();
+        capacityPersistenceAdapter.assignCapabilitiesToBootcamp(1L, ids).block();
+        capacityPersistenceAdapter.assignCapabilitiesToBootcamp(2L, ids.subList(0, 1)).block();
+
+        StepVerifier.create(capacityPersistenceAdapter.deleteCapabilitiesAndAssignations(ids.subList(0, 1)))
+            .verifyComplete();
+
+        StepVerifier.create(databaseClient.sql("SELECT id_bootcamp, capabilities_count FROM bootcamp_capabilities_count ORDER BY id_bootcamp")
+                .map(row -> List.of(row.get("id_bootcamp", Long.class), row.get("capabilities_count", Long.class)))
+                .all())
+            .expectNext(List.of(1L, 1L))
+            .verifyComplete();
+        StepVerifier.create(capacityPersistenceAdapter.findCapabilitiesCountDrift(10))
+            .verifyComplete();
+    }
+
+    @Test
+    void schemaRefusesCaseDuplicatesAndListsThemWithoutTouchingTheData() {
+        databaseClient.sql("DROP INDEX uq_capabilities_name_lower").then().block();
+        databaseClient.sql("INSERT INTO capabilities (name, description) VALUES ('Mobile', 'Apps'), ('MOBILE', 'Apps'), ('Data', 'Analytics')")
+            .then()
+            .block();
+
+        Throwable failure = assertThrows(RuntimeException.class, () -> TestDatabase.applySchema(connectionFactory));
+
+        assertTrue(Stream.iterate(failure, Objects::nonNull, Throwable::getCause)
+                .anyMatch(cause -> String.valueOf(cause.getMessage()).contains("Mobile (id 1), MOBILE (id 2)")),
+            failure::toString);
+        StepVerifier.create(databaseClient.sql("SELECT name FROM capabilities ORDER BY id")
+                .map(row -> row.get("name", String.class))
+                .all())
+            .expectNext("Mobile", "MOBILE", "Data")
+            .verifyComplete();
+
+        databaseClient.sql("DELETE FROM capabilities WHERE id = 2").then().block();
+        TestDatabase.applySchema(connectionFactory);
+    }
+}
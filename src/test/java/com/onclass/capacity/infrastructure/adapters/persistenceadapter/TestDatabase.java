@@ -0,0 +1,52 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Throwaway Postgres for the persistence adapter tests. Tests start the container through
+ * Testcontainers; this class applies schema.sql to it and builds the repositories without a
+ * Spring context.
+ */
+public final class TestDatabase {
+
+    private static final String POSTGRES_IMAGE = "postgres:16-alpine";
+
+    private TestDatabase() {
+    }
+
+    public static PostgreSQLContainer<?> container() {
+        return new PostgreSQLContainer<>(POSTGRES_IMAGE);
+    }
+
+    public static ConnectionFactory connect(PostgreSQLContainer<?> postgres, int maxConnections) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(
+                "r2dbc:pool:postgresql://%s:%d/%s?maxSize=%d".formatted(
+                    postgres.getHost(),
+                    postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                    postgres.getDatabaseName(),
+                    maxConnections))
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, postgres.getUsername())
+            .option(ConnectionFactoryOptions.PASSWORD, postgres.getPassword())
+            .build());
+        applySchema(connectionFactory);
+        return connectionFactory;
+    }
+
+    public static void applySchema(ConnectionFactory connectionFactory) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+            .populate(connectionFactory)
+            .block();
+    }
+
+    public static <T> T repository(ConnectionFactory connectionFactory, Class<T> repositoryType) {
+        return new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionFactory)).getRepository(repositoryType);
+    }
+}
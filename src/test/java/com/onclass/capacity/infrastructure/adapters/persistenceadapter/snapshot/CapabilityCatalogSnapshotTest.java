@@ -0,0 +1,81 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot;
+
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.domain.model.spi.CapacityBasicItem;
+import com.onclass.capacity.domain.model.spi.RankedBootcamp;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.entity.CapacityBootcampEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapabilityCatalogSnapshotTest {
+
+    private final CapabilityCatalogSnapshot snapshot = CapabilityCatalogSnapshot.of(
+        List.of(capacity(3L, "api"), capacity(1L, "backend"), capacity(4L, "cloud"), capacity(2L, "data")),
+        List.of(
+            assignation(10L, 1L), assignation(10L, 2L),
+            assignation(20L, 3L),
+            assignation(30L, 4L), assignation(30L, 1L),
+            assignation(40L, 2L), assignation(40L, 3L), assignation(40L, 4L)),
+        Map.of(10L, 2L, 20L, 1L, 30L, 2L, 40L, 3L),
+        Instant.now());
+
+    @Test
+    void namePagesAndCursorsFollowTheLoadedOrderInBothDirections() {
+        assertEquals(List.of(3L, 1L), ids(snapshot.pageByName(false, 0, 2)));
+        assertEquals(List.of(2L, 4L), ids(snapshot.pageByName(true, 0, 2)));
+        assertEquals(List.of(4L, 2L), ids(snapshot.pageByNameAfter(false, "backend", 1L, 5).orElseThrow()));
+        assertEquals(List.of(1L, 3L), ids(snapshot.pageByNameAfter(true, "cloud", 4L, 5).orElseThrow()));
+        assertEquals(Optional.empty(), snapshot.pageByNameAfter(false, "renamed", 1L, 5));
+        assertEquals(Optional.empty(), snapshot.pageByNameAfter(false, "gone", 99L, 5));
+        assertEquals(List.of(2L, 3L), ids(snapshot.findAllByIds(List.of(2L, 99L, 3L, 2L))));
+    }
+
+    @Test
+    void bootcampRankingOrdersByCountThenIdAndResumesAfterTheCursor() {
+        assertEquals(List.of(20L, 10L, 30L, 40L), bootcampIds(snapshot.pageByBootcampCount(false, 0, 10)));
+        assertEquals(List.of(40L, 30L), bootcampIds(snapshot.pageByBootcampCount(true, 0, 2)));
+        assertEquals(List.of(30L, 40L), bootcampIds(snapshot.pageByBootcampCountAfter(false, 2, 10L, 10)));
+        assertEquals(List.of(10L, 20L), bootcampIds(snapshot.pageByBootcampCountAfter(true, 2, 30L, 10)));
+        assertTrue(snapshot.pageByBootcampCountAfter(true, 1, 20L, 10).isEmpty());
+        assertEquals(List.of(1L, 4L), snapshot.pageByBootcampCount(false, 2, 1).getFirst().capabilities().stream()
+            .map(CapacityBasicItem::id).toList());
+        assertEquals(4, snapshot.capabilitiesCount());
+        assertEquals(4, snapshot.bootcampsCount());
+    }
+
+    @Test
+    void bootcampRankingUsesTheStoredCounterEvenWhenItDrifted() {
+        CapabilityCatalogSnapshot drifted = CapabilityCatalogSnapshot.of(
+            List.of(capacity(1L, "backend"), capacity(2L, "data")),
+            List.of(assignation(10L, 1L), assignation(20L, 1L), assignation(20L, 2L), assignation(30L, 2L)),
+            Map.of(10L, 5L, 20L, 2L),
+            Instant.now());
+
+        assertEquals(List.of(20L, 10L), bootcampIds(drifted.pageByBootcampCount(false, 0, 10)));
+        assertEquals(List.of(10L), bootcampIds(drifted.pageByBootcampCountAfter(false, 2, 20L, 10)));
+        assertEquals(5L, drifted.pageByBootcampCount(true, 0, 1).getFirst().capabilitiesCount());
+    }
+
+    private static Capacity capacity(Long id, String name) {
+        return new Capacity(id, name, name + " description", List.of());
+    }
+
+    private static CapacityBootcampEntity assignation(Long bootcampId, Long capacityId) {
+        return CapacityBootcampEntity.builder().bootcampId(bootcampId).capacityId(capacityId).build();
+    }
+
+    private static List<Long> ids(List<Capacity> capabilities) {
+        return capabilities.stream().map(Capacity::id).toList();
+    }
+
+    private static List<Long> bootcampIds(List<RankedBootcamp> bootcamps) {
+        return bootcamps.stream().map(RankedBootcamp::id).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.onclass.capacity.infrastructure.adapters.persistenceadapter.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onclass.capacity.domain.model.Capacity;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.CapacityPersistenceAdapter;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.TestDatabase;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityBootcampRepository;
+import com.onclass.capacity.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CatalogSnapshotPersistenceAdapterTest {
+
+    private static final Duration RELOAD_TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = TestDatabase.container();
+
+    private static ConnectionFactory connectionFactory;
+    private static DatabaseClient databaseClient;
+
+    private CatalogSnapshotPersistenceAdapter catalogSnapshotAdapter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = TestDatabase.connect(POSTGRES, 4);
+        databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    @BeforeEach
+    void startSnapshot() {
+        databaseClient.sql("TRUNCATE capabilities, capacity_bootcamp, bootcamp_capabilities_count RESTART IDENTITY")
+            .then()
+            .block();
+        insertCapacity("Backend");
+        CapacityRepository capacityRepository = TestDatabase.repository(connectionFactory, CapacityRepository.class);
+        CapacityBootcampRepository capacityBootcampRepository = TestDatabase.repository(connectionFactory, CapacityBootcampRepository.class);
+        CapacityEntityMapper capacityEntityMapper = Mappers.getMapper(CapacityEntityMapper.class);
+        DefaultTransactionDefinition snapshotDefinition = new DefaultTransactionDefinition();
+        snapshotDefinition.setReadOnly(true);
+        snapshotDefinition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        CatalogSnapshotProperties properties = new CatalogSnapshotProperties();
+        properties.setEnabled(true);
+        properties.setResyncInterval(Duration.ofHours(1));
+        properties.setReconnectBackoff(Duration.ofMillis(200));
+        catalogSnapshotAdapter = new CatalogSnapshotPersistenceAdapter(
+            new CapacityPersistenceAdapter(capacityRepository, capacityBootcampRepository, capacityEntityMapper, new ObjectMapper()),
+            capacityRepository, capacityBootcampRepository, capacityEntityMapper, connectionFactory,
+            TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory), snapshotDefinition),
+            properties);
+        catalogSnapshotAdapter.start();
+        await().atMost(RELOAD_TIMEOUT).until(() -> catalogSnapshotAdapter.capabilitiesCount() == 1);
+    }
+
+    @AfterEach
+    void stopSnapshot() {
+        catalogSnapshotAdapter.close();
+        setCatalogTriggers(true);
+    }
+
+    @Test
+    void notificationsReloadTheSnapshot() {
+        insertCapacity("Frontend");
+
+        await().atMost(RELOAD_TIMEOUT).until(() -> catalogSnapshotAdapter.capabilitiesCount() == 2);
+        StepVerifier.create(catalogSnapshotAdapter.findPaginatedAndSortByName("asc", 10, 0).map(Capacity::name))
+            .expectNext("Backend", "Frontend")
+            .verifyComplete();
+    }
+
+    @Test
+    void lookupsByIdFallBackToTheDatabaseForIdsMissingFromTheSnapshot() {
+        setCatalogTriggers(false);
+        Long createdId = insertCapacity("Frontend");
+        long databaseReads = catalogSnapshotAdapter.databaseReads();
+
+        StepVerifier.create(catalogSnapshotAdapter.findAllByIds(List.of(1L, createdId)).map(Capacity::name).sort())
+            .expectNext("Backend", "Frontend")
+            .verifyComplete();
+        assertEquals(databaseReads + 1, catalogSnapshotAdapter.databaseReads());
+        assertEquals(1, catalogSnapshotAdapter.capabilitiesCount());
+    }
+
+    @Test
+    void assignationCheckReadsTheDatabaseNotTheSnapshot() {
+        setCatalogTriggers(false);
+        Long createdId = insertCapacity("Frontend");
+        databaseClient.sql("DELETE FROM capabilities WHERE id = 1").then().block();
+
+        StepVerifier.create(catalogSnapshotAdapter.countExistingCapabilities(List.of(createdId)))
+            .expectNext(1L)
+            .verifyComplete();
+        StepVerifier.create(catalogSnapshotAdapter.countExistingCapabilities(List.of(1L, createdId)))
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void readsGoToTheDatabaseUntilALostListenerReconnectsAndReloads() {
+        long refreshes = catalogSnapshotAdapter.refreshes();
+        setCatalogTriggers(false);
+        insertCapacity("Frontend");
+        setCatalogTriggers(true);
+
+        databaseClient.sql("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE query = 'LISTEN capacity_catalog'")
+            .then()
+            .block();
+
+        await().atMost(RELOAD_TIMEOUT).until(() -> catalogSnapshotAdapter.refreshes() > refreshes);
+        assertEquals(2, catalogSnapshotAdapter.capabilitiesCount());
+        long snapshotReads = catalogSnapshotAdapter.snapshotReads();
+        StepVerifier.create(catalogSnapshotAdapter.findPaginatedAndSortByName("asc", 10, 0).map(Capacity::name))
+            .expectNext("Backend", "Frontend")
+            .verifyComplete();
+        assertTrue(catalogSnapshotAdapter.snapshotReads() > snapshotReads);
+    }
+
+    private Long insertCapacity(String name) {
+        return databaseClient.sql("INSERT INTO capabilities (name, description) VALUES (:name, 'Test') RETURNING id")
+            .bind("name", name)
+            .map(row -> row.get("id", Long.class))
+            .one()
+            .block();
+    }
+
+    private void setCatalogTriggers(boolean enabled) {
+        databaseClient.sql("ALTER TABLE capabilities " + (enabled ? "ENABLE" : "DISABLE") + " TRIGGER capabilities_catalog_change")
+            .then()
+            .block();
+    }
+}
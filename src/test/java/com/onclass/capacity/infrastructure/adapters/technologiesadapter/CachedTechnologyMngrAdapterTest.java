@@ -0,0 +1,53 @@
+package com.onclass.capacity.infrastructure.adapters.technologiesadapter;
+
+import com.onclass.capacity.domain.model.spi.CapacityTechnologies;
+import com.onclass.capacity.domain.model.spi.TechnologyItem;
+import com.onclass.capacity.infrastructure.adapters.technologiesadapter.dto.TechnologyMngrProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedTechnologyMngrAdapterTest {
+
+    private static final CapacityTechnologies BACKEND =
+        new CapacityTechnologies(1L, List.of(new TechnologyItem(7L, "Java")));
+
+    private final TechnologyMngrAdapter technologyMngrAdapter = mock(TechnologyMngrAdapter.class);
+    private final CachedTechnologyMngrAdapter cachedAdapter =
+        new CachedTechnologyMngrAdapter(technologyMngrAdapter, new TechnologyMngrProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void capabilitiesWithoutTechnologiesAreCachedAsEmpty() {
+        when(technologyMngrAdapter.getTechnologiesByCapabilitiesIds(anyList())).thenReturn(Mono.just(List.of(BACKEND)));
+
+        for (int lookup = 0; lookup < 2; lookup++) {
+            StepVerifier.create(cachedAdapter.getTechnologiesByCapabilitiesIds(List.of(1L, 2L)))
+                .expectNext(List.of(BACKEND, new CapacityTechnologies(2L, List.of())))
+                .verifyComplete();
+        }
+
+        verify(technologyMngrAdapter, times(1)).getTechnologiesByCapabilitiesIds(anyList());
+    }
+
+    @Test
+    void evictedCapabilitiesAreLoadedAgain() {
+        when(technologyMngrAdapter.getTechnologiesByCapabilitiesIds(anyList())).thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(cachedAdapter.getTechnologiesByCapabilitiesIds(List.of(2L))
+                .then(cachedAdapter.evictTechnologies(List.of(2L)))
+                .then(cachedAdapter.getTechnologiesByCapabilitiesIds(List.of(2L))))
+            .expectNext(List.of(new CapacityTechnologies(2L, List.of())))
+            .verifyComplete();
+
+        verify(technologyMngrAdapter, times(2)).getTechnologiesByCapabilitiesIds(List.of(2L));
+    }
+}